@@ -0,0 +1,53 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link LatexServiceImpl#generateLatexCode} for every bundled template against
+ * a small and a large resume. Templates are loaded once in setup, as the
+ * running service does at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LatexRenderBenchmark {
+
+    @Param({ "ats", "modern", "professional", "creative" })
+    public String template;
+
+    @Param({ "small", "large" })
+    public String size;
+
+    private LatexServiceImpl latexService;
+    private Map<String, Object> resume;
+
+    @Setup
+    public void setUp() throws IOException {
+        LatexTemplateRegistry registry = new LatexTemplateRegistry(false, "");
+        registry.loadAll();
+        latexService = new LatexServiceImpl(registry);
+        resume = ResumeFixtures.resume(size);
+    }
+
+    @Benchmark
+    public String generateLatexCode() throws IOException {
+        return latexService.generateLatexCode(resume, template);
+    }
+}
@@ -0,0 +1,125 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Resume data shaped like the JSON produced from resume_prompt.txt. The small
+ * fixture is a typical one-page resume; the large one repeats every section so
+ * list rendering and escaping dominate. Text deliberately contains LaTeX special
+ * characters (&, %, $, #, _) as real model output does.
+ */
+final class ResumeFixtures {
+
+    private ResumeFixtures() {
+    }
+
+    static Map<String, Object> resume(String size) {
+        return switch (size) {
+            case "small" -> build(2, 1, 4, 1);
+            case "large" -> build(12, 20, 30, 8);
+            default -> throw new IllegalArgumentException("Unknown fixture size: " + size);
+        };
+    }
+
+    /** The resume as the model would answer it: a think block followed by fenced JSON. */
+    static String llmResponse(String size) {
+        try {
+            String json = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(resume(size));
+            return "<think>\nThe user wants a resume for a backend engineer. I will keep the keys "
+                    + "exactly as specified and fill in realistic values.\n</think>\n\n```json\n"
+                    + json + "\n```\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String description(String size) {
+        StringBuilder description = new StringBuilder(
+                "Backend engineer with 6 years of Java & Spring Boot experience, 40% faster APIs, ");
+        int repeats = "large".equals(size) ? 40 : 1;
+        for (int i = 0; i < repeats; i++) {
+            description.append("led migration #").append(i)
+                    .append(" of payment_service to Kubernetes, cut cloud cost by $12k/month. ");
+        }
+        return description.toString();
+    }
+
+    private static Map<String, Object> build(int experiences, int projects, int skills, int certifications) {
+        Map<String, Object> resume = new LinkedHashMap<>();
+
+        Map<String, Object> personal = new LinkedHashMap<>();
+        personal.put("fullName", "Jane O'Neil");
+        personal.put("email", "jane.oneil@example.com");
+        personal.put("phoneNumber", "+1 (555) 010-2030");
+        personal.put("location", "San Francisco, CA");
+        personal.put("linkedIn", "https://linkedin.com/in/jane_oneil");
+        personal.put("gitHub", "https://github.com/jane-oneil");
+        personal.put("portfolio", "https://jane.dev");
+        resume.put("personalInformation", personal);
+
+        resume.put("summary", "Backend engineer focused on reliable, low-latency services. Reduced p99 "
+                + "latency by 35% & infrastructure spend by $40k/year across 12 microservices.");
+
+        List<Map<String, Object>> skillList = new ArrayList<>();
+        for (int i = 0; i < skills; i++) {
+            skillList.add(entry("title", "Skill_" + i + " (Java/Spring & SQL)", "level", i % 2 == 0 ? "Expert" : "Advanced"));
+        }
+        resume.put("skills", skillList);
+
+        List<Map<String, Object>> experienceList = new ArrayList<>();
+        for (int i = 0; i < experiences; i++) {
+            Map<String, Object> experience = new LinkedHashMap<>();
+            experience.put("jobTitle", "Senior Software Engineer");
+            experience.put("company", "Acme & Co #" + i);
+            experience.put("location", "Remote");
+            experience.put("duration", "Jan 2019 - Present");
+            experience.put("responsibility", "Designed event_driven order pipeline handling 20k msg/s; "
+                    + "improved throughput by 3x and cut error rate to 0.1%. Mentored 5 engineers "
+                    + "and owned the on-call rotation for the payments domain.");
+            experienceList.add(experience);
+        }
+        resume.put("experience", experienceList);
+
+        resume.put("education", List.of(entry("degree", "B.Sc. Computer Science", "university",
+                "State University", "location", "Austin, TX", "graduationYear", "2017")));
+
+        List<Map<String, Object>> certificationList = new ArrayList<>();
+        for (int i = 0; i < certifications; i++) {
+            certificationList.add(entry("title", "AWS Certified Solutions Architect #" + i,
+                    "issuingOrganization", "Amazon Web Services", "year", "2022"));
+        }
+        resume.put("certifications", certificationList);
+
+        List<Map<String, Object>> projectList = new ArrayList<>();
+        for (int i = 0; i < projects; i++) {
+            Map<String, Object> project = new LinkedHashMap<>();
+            project.put("title", "Project_" + i);
+            project.put("description", "Open-source rate limiter with AIMD control; 1.2k stars & "
+                    + "used in production by 30+ teams at ~$0 cost.");
+            project.put("technologiesUsed", List.of("Java", "Spring Boot", "Redis", "C#"));
+            project.put("githubLink", "https://github.com/jane-oneil/project_" + i);
+            projectList.add(project);
+        }
+        resume.put("projects", projectList);
+
+        resume.put("achievements", List.of(entry("title", "Hackathon winner (1st of 120 teams)", "year", "2021")));
+        resume.put("extraInformation", "");
+        resume.put("languages", List.of(entry("id", 1, "name", "English"), entry("id", 2, "name", "Spanish")));
+        resume.put("interests", List.of(entry("id", 1, "name", "Rock climbing")));
+        return resume;
+    }
+
+    private static Map<String, Object> entry(Object... keyValues) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            entry.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,78 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * String paths around the LLM call: escaping values for LaTeX, filling the
+ * resume prompt and parsing the model's answer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextProcessingBenchmark {
+
+    @Param({ "small", "large" })
+    public String size;
+
+    private LatexServiceImpl latexService;
+    private ResumeServiceImpl resumeService;
+    private String plainText;
+    private String specialText;
+    private String promptTemplate;
+    private Map<String, String> promptValues;
+    private String llmResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        latexService = new LatexServiceImpl(new LatexTemplateRegistry(false, ""));
+        // Only the pure string helpers are exercised, so no gateway or registry is needed
+        resumeService = new ResumeServiceImpl(null, null, null);
+
+        String description = ResumeFixtures.description(size);
+        plainText = description.replaceAll("[&%$#_{}~^\\\\]", "");
+        specialText = description;
+        promptTemplate = new ClassPathResource("resume_prompt.txt").getContentAsString(StandardCharsets.UTF_8);
+        promptValues = Map.of("userResumeDescription", description, "templateType", "modern");
+        llmResponse = ResumeFixtures.llmResponse(size);
+    }
+
+    /** Fast path: nothing to escape. */
+    @Benchmark
+    public String escapePlain() {
+        return latexService.escapeLatexSpecialChars(plainText);
+    }
+
+    @Benchmark
+    public String escapeSpecial() {
+        return latexService.escapeLatexSpecialChars(specialText);
+    }
+
+    @Benchmark
+    public String putValueToTemplate() {
+        return resumeService.putValueToTemplate(promptTemplate, promptValues);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseMultipleResponses() {
+        return ResumeServiceImpl.parseMultipleResponses(llmResponse);
+    }
+}
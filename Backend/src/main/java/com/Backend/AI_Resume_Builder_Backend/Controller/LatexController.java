@@ -1,14 +1,40 @@
 package com.Backend.AI_Resume_Builder_Backend.Controller;
 
+import com.Backend.AI_Resume_Builder_Backend.Service.CompileJob;
+import com.Backend.AI_Resume_Builder_Backend.Service.CompileJobService;
+import com.Backend.AI_Resume_Builder_Backend.Service.CompileOverloadedException;
+import com.Backend.AI_Resume_Builder_Backend.Service.CompileScheduler;
+import com.Backend.AI_Resume_Builder_Backend.Service.IncrementalLatexRenderer;
 import com.Backend.AI_Resume_Builder_Backend.Service.LatexService;
+import com.Backend.AI_Resume_Builder_Backend.Service.PdfArtifact;
+import com.Backend.AI_Resume_Builder_Backend.Service.PdfPreviewService;
+import com.Backend.AI_Resume_Builder_Backend.Service.UnknownRenderException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.security.Principal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/latex")
@@ -35,8 +61,24 @@ public class LatexController {
     @Autowired
     private com.Backend.AI_Resume_Builder_Backend.Service.LatexCompileService latexCompileService;
 
+    @Autowired
+    private CompileJobService compileJobService;
+
+    @Autowired
+    private PdfPreviewService pdfPreviewService;
+
+    @Autowired
+    private IncrementalLatexRenderer incrementalLatexRenderer;
+
+    @Value("${latex.compile.timeoutSeconds:40}")
+    private long compileTimeoutSeconds;
+
+    @Value("${latex.scheduler.maxQueueWaitSeconds:30}")
+    private long maxQueueWaitSeconds;
+
     /**
-     * Generate LaTeX code from resume data
+     * Generate LaTeX code from resume data. The response carries a renderId;
+     * later edits can be sent to /generate/patch against it.
      */
     @PostMapping(value = "/generate", consumes = "application/json", produces = "application/json")
     public ResponseEntity<Map<String, Object>> generateLatexCode(@RequestBody Map<String, Object> request) {
@@ -56,26 +98,19 @@ public class LatexController {
             // Validate template type
             if (templateType != null) {
                 String normalized = templateType.toLowerCase();
-                if (!(normalized.equals("professional") || normalized.equals("modern") || normalized.equals("ats")
-                        || normalized.equals("creative"))) {
+                Map<String, String> available = latexService.getAvailableTemplates();
+                if (!available.containsKey(normalized)) {
                     Map<String, Object> errorResponse = new HashMap<>();
                     errorResponse.put("error", "Invalid templateType");
-                    errorResponse.put("message", "Allowed values: professional, modern, ats, creative");
+                    errorResponse.put("message", "Allowed values: " + String.join(", ", available.keySet()));
                     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
                 }
                 templateType = normalized;
             }
 
-            // Generate LaTeX code
-            String latexCode = latexService.generateLatexCode(resumeData, templateType);
-
-            // Prepare response
-            Map<String, Object> response = new HashMap<>();
-            response.put("latexCode", latexCode);
-            response.put("templateType", templateType);
-            response.put("success", true);
-
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            // Generate LaTeX code, kept for incremental re-renders
+            IncrementalLatexRenderer.Result result = incrementalLatexRenderer.render(resumeData, templateType);
+            return new ResponseEntity<>(renderResponse(result), HttpStatus.OK);
 
         } catch (IOException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -91,7 +126,54 @@ public class LatexController {
     }
 
     /**
-     * Get list of available LaTeX templates
+     * Re-generate LaTeX after an edit. Takes {renderId, patch, templateType?}
+     * where patch is a JSON Patch (RFC 6902) against the resume data of that
+     * render; only template sections whose inputs changed are re-rendered.
+     * Answers 409 when the render has expired, so the client falls back to
+     * /generate with the full resume data.
+     */
+    @PostMapping(value = "/generate/patch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<Map<String, Object>> patchLatexCode(@RequestBody Map<String, Object> request) {
+        Object renderId = request.get("renderId");
+        Object patch = request.get("patch");
+        Object templateType = request.get("templateType");
+        if (!(renderId instanceof String) || !(patch instanceof List<?>)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid input");
+            errorResponse.put("message", "renderId and a JSON Patch array 'patch' are required");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        Map<String, String> available = latexService.getAvailableTemplates();
+        if (templateType != null && !available.containsKey(templateType.toString().toLowerCase())) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid templateType");
+            errorResponse.put("message", "Allowed values: " + String.join(", ", available.keySet()));
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            IncrementalLatexRenderer.Result result = incrementalLatexRenderer.patch((String) renderId,
+                    (List<?>) patch, templateType == null ? null : templateType.toString());
+            return new ResponseEntity<>(renderResponse(result), HttpStatus.OK);
+        } catch (UnknownRenderException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unknown render");
+            errorResponse.put("message", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid patch");
+            errorResponse.put("message", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+        } catch (IOException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to generate LaTeX code");
+            errorResponse.put("message", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Get list of available LaTeX templates with their metadata
      */
     @GetMapping("/templates")
     public ResponseEntity<Map<String, Object>> getTemplates() {
@@ -100,6 +182,7 @@ public class LatexController {
 
             Map<String, Object> response = new HashMap<>();
             response.put("templates", templates);
+            response.put("metadata", latexService.getTemplateMetadata());
             response.put("success", true);
 
             return new ResponseEntity<>(response, HttpStatus.OK);
@@ -135,35 +218,270 @@ public class LatexController {
     }
 
     /**
-     * Compile LaTeX source to PDF and return as application/pdf
+     * Compile LaTeX source to PDF and return as application/pdf.
+     * Optional fields: "purpose" ("preview" or "download", the default; previews
+     * are scheduled first) and "clientId" (a newer preview from the same client
+     * replaces a queued one, which is answered with 409).
+     * The PDF is streamed from the compile cache with its ETag; Content-Location
+     * points at GET /pdf/{pdfId}, which also serves ranges and revalidation.
+     * Sending If-None-Match with the previous ETag answers 304 for an unchanged PDF.
      */
     @PostMapping(value = "/compile", consumes = "application/json")
-    public ResponseEntity<?> compileLatex(@RequestBody Map<String, Object> request) {
+    public DeferredResult<ResponseEntity<?>> compileLatex(@RequestBody Map<String, Object> request,
+            HttpServletRequest httpRequest) {
+        DeferredResult<ResponseEntity<?>> deferred = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(maxQueueWaitSeconds + compileTimeoutSeconds + 5));
+        deferred.onTimeout(() -> {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Compilation timed out");
+            error.put("message", "The LaTeX compiler did not finish in time. Please try again.");
+            deferred.setResult(new ResponseEntity<>(error, HttpStatus.GATEWAY_TIMEOUT));
+        });
         try {
             Object codeObj = request.get("latexCode");
             if (codeObj == null) {
                 Map<String, Object> error = new HashMap<>();
                 error.put("error", "Invalid input");
                 error.put("message", "'latexCode' is required");
-                return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+                deferred.setResult(new ResponseEntity<>(error, HttpStatus.BAD_REQUEST));
+                return deferred;
             }
             String latexCode = codeObj.toString();
-            byte[] pdf = latexCompileService.compileToPdf(latexCode);
-            return ResponseEntity.ok()
-                    .header("Content-Type", "application/pdf")
-                    .header("Content-Disposition", "inline; filename=resume.pdf")
-                    .body(pdf);
-        } catch (IOException | InterruptedException e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("error", "Compilation failed");
-            error.put("message", e.getMessage());
-            return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+            CompileScheduler.Priority priority = priority(request);
+            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+            latexCompileService.compileToPdfAsync(latexCode, priority, clientId(request, httpRequest))
+                    .whenComplete((pdf, error) -> deferred.setResult(error != null
+                            ? compileError(error)
+                            : pdfResponse(pdf, ifNoneMatch)));
         } catch (Exception e) {
+            deferred.setResult(compileError(e));
+        }
+        return deferred;
+    }
+
+    /**
+     * Fill a template with resume data and return the PDF, as /generate followed
+     * by /compile. Templates configured in latex.pdfbox.templates (ats by default)
+     * are rendered in-process with PDFBox in milliseconds instead of by TeX, as is
+     * any supported template when no TeX engine is installed.
+     * Body: { resumeData, templateType?, purpose?, clientId? }; the response is
+     * the same as for /compile.
+     */
+    @PostMapping(value = "/render", consumes = "application/json")
+    public DeferredResult<ResponseEntity<?>> renderPdf(@RequestBody Map<String, Object> request,
+            HttpServletRequest httpRequest) {
+        DeferredResult<ResponseEntity<?>> deferred = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(maxQueueWaitSeconds + compileTimeoutSeconds + 5));
+        deferred.onTimeout(() -> {
             Map<String, Object> error = new HashMap<>();
-            error.put("error", "Internal server error");
-            error.put("message", e.getMessage());
-            return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+            error.put("error", "Compilation timed out");
+            error.put("message", "The LaTeX compiler did not finish in time. Please try again.");
+            deferred.setResult(new ResponseEntity<>(error, HttpStatus.GATEWAY_TIMEOUT));
+        });
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> resumeData = (Map<String, Object>) request.get("resumeData");
+            String templateType = String.valueOf(request.getOrDefault("templateType", "professional")).toLowerCase();
+            if (resumeData == null) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Invalid input");
+                error.put("message", "Resume data is required");
+                deferred.setResult(new ResponseEntity<>(error, HttpStatus.BAD_REQUEST));
+                return deferred;
+            }
+            Map<String, String> available = latexService.getAvailableTemplates();
+            if (!available.containsKey(templateType)) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Invalid templateType");
+                error.put("message", "Allowed values: " + String.join(", ", available.keySet()));
+                deferred.setResult(new ResponseEntity<>(error, HttpStatus.BAD_REQUEST));
+                return deferred;
+            }
+            CompileScheduler.Priority priority = priority(request);
+            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+            latexCompileService.renderToPdfAsync(resumeData, templateType, priority, clientId(request, httpRequest))
+                    .whenComplete((pdf, error) -> deferred.setResult(error != null
+                            ? compileError(error)
+                            : pdfResponse(pdf, ifNoneMatch)));
+        } catch (Exception e) {
+            deferred.setResult(compileError(e));
+        }
+        return deferred;
+    }
+
+    /**
+     * A compiled PDF by id, for as long as it stays in the compile cache.
+     * Supports Range requests and If-None-Match / If-Range revalidation.
+     */
+    @GetMapping("/pdf/{pdfId}")
+    public ResponseEntity<?> getPdf(@PathVariable String pdfId, HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) throws IOException {
+        PdfArtifact pdf = latexCompileService.findPdf(pdfId);
+        if (pdf == null || Files.notExists(pdf.file())) {
+            return pdfNotFound(pdfId);
+        }
+        PdfResponses.write(pdf, httpRequest, httpResponse);
+        return null;
+    }
+
+    /**
+     * Page previews available for a compiled PDF, with the URL of each page
+     * image at the resolved DPI.
+     */
+    @GetMapping(value = "/pdf/{pdfId}/pages", produces = "application/json")
+    public DeferredResult<ResponseEntity<?>> getPdfPages(@PathVariable String pdfId,
+            @RequestParam(required = false) Integer dpi) {
+        DeferredResult<ResponseEntity<?>> deferred = new DeferredResult<>();
+        PdfArtifact pdf = latexCompileService.findPdf(pdfId);
+        if (pdf == null || Files.notExists(pdf.file())) {
+            deferred.setResult(pdfNotFound(pdfId));
+            return deferred;
+        }
+        int resolvedDpi = pdfPreviewService.resolveDpi(dpi);
+        pdfPreviewService.pageCount(pdf).whenComplete((pages, error) -> {
+            if (error != null) {
+                deferred.setResult(previewError(error, "Failed to read PDF"));
+                return;
+            }
+            List<String> pageUrls = new ArrayList<>();
+            for (int page = 1; page <= pages; page++) {
+                pageUrls.add("/api/latex/pdf/" + pdf.id() + "/pages/" + page + "?dpi=" + resolvedDpi);
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("pdfId", pdf.id());
+            response.put("pages", pages);
+            response.put("dpi", resolvedDpi);
+            response.put("pageUrls", pageUrls);
+            deferred.setResult(new ResponseEntity<>(response, HttpStatus.OK));
+        });
+        return deferred;
+    }
+
+    /**
+     * PNG preview of one page (1-based) of a compiled PDF. The ETag is known
+     * before rendering, so a matching If-None-Match answers 304 without
+     * touching the PDF. Rendering happens off the request thread.
+     */
+    @GetMapping("/pdf/{pdfId}/pages/{page}")
+    public DeferredResult<ResponseEntity<?>> getPdfPagePreview(@PathVariable String pdfId, @PathVariable int page,
+            @RequestParam(required = false) Integer dpi,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        DeferredResult<ResponseEntity<?>> deferred = new DeferredResult<>();
+        PdfArtifact pdf = latexCompileService.findPdf(pdfId);
+        if (pdf == null || Files.notExists(pdf.file())) {
+            deferred.setResult(pdfNotFound(pdfId));
+            return deferred;
+        }
+        int resolvedDpi = pdfPreviewService.resolveDpi(dpi);
+        String etag = pdfPreviewService.etag(pdf, page, resolvedDpi);
+        if (PdfResponses.matches(ifNoneMatch, etag)) {
+            deferred.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, "private, no-cache").build());
+            return deferred;
+        }
+        pdfPreviewService.page(pdf, page, resolvedDpi).whenComplete((preview, error) -> deferred.setResult(
+                error != null
+                        ? previewError(error, "Failed to render preview")
+                        : ResponseEntity.ok()
+                                .contentType(MediaType.IMAGE_PNG)
+                                .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                                .eTag(preview.etag())
+                                .contentLength(preview.png().length)
+                                .body(preview.png())));
+        return deferred;
+    }
+
+    /**
+     * Submit a compile job and return at once with its id (202 Accepted).
+     * Takes the same body as /compile. Follow the job with GET /jobs/{id}
+     * (polling) or GET /jobs/{id}/events (SSE), then fetch /jobs/{id}/pdf.
+     */
+    @PostMapping(value = "/jobs", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<?> submitCompileJob(@RequestBody Map<String, Object> request,
+            HttpServletRequest httpRequest) {
+        try {
+            Object codeObj = request.get("latexCode");
+            if (codeObj == null) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Invalid input");
+                error.put("message", "'latexCode' is required");
+                return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+            }
+            CompileScheduler.Priority priority = priority(request);
+            CompileJob job = compileJobService.submit(codeObj.toString(), priority, clientId(request, httpRequest));
+
+            Map<String, Object> response = jobStatus(job);
+            response.put("statusUrl", "/api/latex/jobs/" + job.getId());
+            response.put("eventsUrl", "/api/latex/jobs/" + job.getId() + "/events");
+            response.put("pdfUrl", "/api/latex/jobs/" + job.getId() + "/pdf");
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/latex/jobs/" + job.getId()))
+                    .body(response);
+        } catch (Exception e) {
+            return compileError(e);
+        }
+    }
+
+    /**
+     * Status of a compile job: pending, succeeded, failed or superseded.
+     */
+    @GetMapping(value = "/jobs/{jobId}", produces = "application/json")
+    public ResponseEntity<Map<String, Object>> getCompileJob(@PathVariable String jobId) {
+        CompileJob job = compileJobService.get(jobId);
+        if (job == null) {
+            return jobNotFound(jobId);
+        }
+        return new ResponseEntity<>(jobStatus(job), HttpStatus.OK);
+    }
+
+    /**
+     * PDF of a finished job, streamed with Range and ETag support. Answers 202
+     * with the status while it is pending, 422 with the compiler message if it
+     * failed, and 410 if the PDF has since been evicted from the compile cache.
+     */
+    @GetMapping("/jobs/{jobId}/pdf")
+    public ResponseEntity<?> getCompileJobPdf(@PathVariable String jobId, HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) throws IOException {
+        CompileJob job = compileJobService.get(jobId);
+        if (job == null) {
+            return jobNotFound(jobId);
         }
+        PdfArtifact pdf = job.getPdf();
+        if (pdf != null) {
+            if (Files.notExists(pdf.file())) {
+                Map<String, Object> error = new HashMap<>(jobStatus(job));
+                error.put("error", "PDF evicted");
+                error.put("message", "The PDF of this job is no longer cached; submit the compile again");
+                return new ResponseEntity<>(error, HttpStatus.GONE);
+            }
+            PdfResponses.write(pdf, httpRequest, httpResponse);
+            // Response already written
+            return null;
+        }
+        HttpStatus status = switch (job.getStatus()) {
+            case PENDING -> HttpStatus.ACCEPTED;
+            case SUPERSEDED -> HttpStatus.CONFLICT;
+            default -> HttpStatus.UNPROCESSABLE_ENTITY;
+        };
+        return new ResponseEntity<>(jobStatus(job), status);
+    }
+
+    /**
+     * Server-Sent Events for a compile job: one "status" event straight away,
+     * then "done" with the final status once the job finishes.
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter compileJobEvents(@PathVariable String jobId) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(maxQueueWaitSeconds + compileTimeoutSeconds + 5));
+        CompileJob job = compileJobService.get(jobId);
+        if (job == null) {
+            sendAndComplete(emitter, "error", jobNotFound(jobId).getBody());
+            return emitter;
+        }
+        send(emitter, "status", jobStatus(job));
+        job.completion().whenComplete((finished, error) -> sendAndComplete(emitter, "done", jobStatus(job)));
+        return emitter;
     }
 
     /**
@@ -174,6 +492,9 @@ public class LatexController {
         try {
             @SuppressWarnings("unchecked")
             Map<String, Object> status = (Map<String, Object>) latexCompileService.getCompilerStatus();
+            status.put("jobs", compileJobService.stats());
+            status.put("previews", pdfPreviewService.stats());
+            status.put("incremental", incrementalLatexRenderer.stats());
             status.put("success", true);
             return new ResponseEntity<>(status, HttpStatus.OK);
         } catch (Exception e) {
@@ -184,4 +505,138 @@ public class LatexController {
             return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Only requests that ask for a preview are scheduled as one, since a queued
+     * preview can be superseded; callers that send no purpose get their PDF.
+     */
+    private static CompileScheduler.Priority priority(Map<String, Object> request) {
+        return "preview".equalsIgnoreCase(String.valueOf(request.get("purpose")))
+                ? CompileScheduler.Priority.PREVIEW
+                : CompileScheduler.Priority.DOWNLOAD;
+    }
+
+    /**
+     * Client identity for superseding previews and reusing compile workspaces:
+     * the user, else the session. The body's clientId only tells apart editors
+     * of the same owner, so one caller cannot supersede another's previews or
+     * share their workspace by sending the same id; without a user or session
+     * it is scoped to the remote address.
+     */
+    private String clientId(Map<String, Object> request, HttpServletRequest httpRequest) {
+        String owner = null;
+        Principal principal = httpRequest.getUserPrincipal();
+        if (principal != null) {
+            owner = "user:" + principal.getName();
+        } else {
+            HttpSession session = httpRequest.getSession(false);
+            if (session != null) {
+                owner = "session:" + session.getId();
+            }
+        }
+        Object clientId = request.get("clientId");
+        if (clientId == null || clientId.toString().isBlank()) {
+            return owner;
+        }
+        return (owner != null ? owner : "address:" + httpRequest.getRemoteAddr()) + ":client:" + clientId;
+    }
+
+    private Map<String, Object> renderResponse(IncrementalLatexRenderer.Result result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("latexCode", result.latexCode());
+        response.put("templateType", result.templateType());
+        response.put("renderId", result.renderId());
+        response.put("renderedSections", result.renderedFragments());
+        response.put("reusedSections", result.reusedFragments());
+        response.put("success", true);
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> pdfNotFound(String pdfId) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "PDF not found");
+        error.put("message", "No compiled PDF '" + pdfId + "'; compile the source again");
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<?> pdfResponse(PdfArtifact pdf, String ifNoneMatch) {
+        if (PdfResponses.matches(ifNoneMatch, pdf.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(pdf.etag()).build();
+        }
+        StreamingResponseBody body = out -> PdfResponses.transfer(pdf, 0, pdf.size(), out);
+        return ResponseEntity.ok()
+                .header("Content-Type", PdfResponses.CONTENT_TYPE)
+                .header("Content-Disposition", PdfResponses.CONTENT_DISPOSITION)
+                .header(HttpHeaders.CONTENT_LOCATION, "/api/latex/pdf/" + pdf.id())
+                .eTag(pdf.etag())
+                .contentLength(pdf.size())
+                .body(body);
+    }
+
+    private ResponseEntity<?> previewError(Throwable error, String failure) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Map<String, Object> errorResponse = new HashMap<>();
+        if (e instanceof IllegalArgumentException) {
+            errorResponse.put("error", "Page not found");
+            errorResponse.put("message", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        }
+        errorResponse.put("error", failure);
+        errorResponse.put("message", e instanceof UncheckedIOException io ? io.getCause().getMessage() : e.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private ResponseEntity<?> compileError(Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Map<String, Object> errorResponse = new HashMap<>();
+        if (e instanceof CompileOverloadedException overloaded) {
+            // Every worker is busy and the queue is full; clients should back off
+            errorResponse.put("error", "Compiler busy");
+            errorResponse.put("message", overloaded.getMessage());
+            errorResponse.put("retryAfterSeconds", overloaded.getRetryAfterSeconds());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()))
+                    .body(errorResponse);
+        }
+        if (e instanceof CancellationException) {
+            errorResponse.put("error", "Superseded");
+            errorResponse.put("message", "A newer preview from the same client replaced this compile");
+            return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+        }
+        errorResponse.put("error", e instanceof IOException || e instanceof InterruptedException
+                ? "Compilation failed"
+                : "Internal server error");
+        errorResponse.put("message", e.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private Map<String, Object> jobStatus(CompileJob job) {
+        Map<String, Object> status = new HashMap<>(job.toStatus());
+        status.put("success", job.getStatus() != CompileJob.Status.FAILED);
+        return status;
+    }
+
+    private ResponseEntity<Map<String, Object>> jobNotFound(String jobId) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "Job not found");
+        error.put("message", "No compile job '" + jobId + "'; finished jobs are kept for "
+                + compileJobService.getRetention().toMinutes() + " minutes");
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected; the job still finishes and can be polled
+        }
+    }
+
+    private void sendAndComplete(SseEmitter emitter, String event, Object data) {
+        send(emitter, event, data);
+        try {
+            emitter.complete();
+        } catch (IllegalStateException ignored) {
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package com.Backend.AI_Resume_Builder_Backend.Controller;
+
+import com.Backend.AI_Resume_Builder_Backend.Service.PdfArtifact;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a compiled PDF from its file without loading it into the heap.
+ *
+ * On Tomcat's NIO connector the file is handed to sendfile, so the kernel
+ * copies it straight to the socket; elsewhere it is copied with
+ * {@link FileChannel#transferTo}. Supports single byte ranges (206/416),
+ * If-Range, and If-None-Match revalidation (304) against the strong ETag.
+ */
+final class PdfResponses {
+
+    static final String CONTENT_TYPE = "application/pdf";
+    static final String CONTENT_DISPOSITION = "inline; filename=resume.pdf";
+
+    // Tomcat request attributes for sendfile (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    static final long[] UNSATISFIABLE = new long[0];
+
+    private PdfResponses() {
+    }
+
+    static void write(PdfArtifact pdf, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = pdf.etag();
+        long size = pdf.size();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Cheap to revalidate, and a recompile of the same URL may change it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, CONTENT_DISPOSITION);
+        response.setContentLengthLong(end - start + 1);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || size == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat sends the file once the handler returns
+            request.setAttribute(SENDFILE_FILENAME, pdf.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(pdf, start, end - start + 1, response.getOutputStream());
+    }
+
+    /** Copy {@code length} bytes of the PDF from {@code position} with {@link FileChannel#transferTo}. */
+    static void transfer(PdfArtifact pdf, long position, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(pdf.file(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            while (length > 0) {
+                long sent = channel.transferTo(position, length, target);
+                if (sent <= 0) {
+                    throw new IOException("PDF " + pdf.id() + " was truncated while being sent");
+                }
+                position += sent;
+                length -= sent;
+            }
+        }
+        out.flush();
+    }
+
+    /** If-None-Match uses weak comparison, so W/ tags added by proxies still match. */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || (tag.startsWith("W/") && tag.substring(2).equals(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a single {@code bytes=} range. Returns {@code null} to ignore the
+     * header and send the whole file (malformed or multiple ranges, which the
+     * RFC allows), or {@link #UNSATISFIABLE} when it lies beyond the end.
+     */
+    static long[] parseRange(String header, long size) {
+        String value = header.trim();
+        if (!value.startsWith("bytes=") || value.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = value.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[] { Math.max(0, size - suffix), size - 1 };
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return start <= end ? new long[] { start, end } : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
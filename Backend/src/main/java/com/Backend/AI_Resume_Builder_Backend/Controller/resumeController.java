@@ -2,12 +2,19 @@ package com.Backend.AI_Resume_Builder_Backend.Controller;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,10 +22,19 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.Backend.AI_Resume_Builder_Backend.Service.ResumeRequest;
 import com.Backend.AI_Resume_Builder_Backend.Service.ResumeService;
+import com.Backend.AI_Resume_Builder_Backend.Service.AtsResultCache;
 import com.Backend.AI_Resume_Builder_Backend.Service.AtsScoreService;
+import com.Backend.AI_Resume_Builder_Backend.Service.LlmGatewayService;
+import com.Backend.AI_Resume_Builder_Backend.Service.LlmOverloadedException;
+import com.Backend.AI_Resume_Builder_Backend.Service.LlmUpstreamException;
+import com.Backend.AI_Resume_Builder_Backend.Service.PdfLimitExceededException;
+import com.Backend.AI_Resume_Builder_Backend.Service.PromptLoadException;
+import com.Backend.AI_Resume_Builder_Backend.Service.StreamingResponseParser;
 
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/resume")
@@ -31,8 +47,18 @@ public class resumeController {
 	@Autowired
 	private AtsScoreService atsScoreService;
 
+	@Autowired
+	private LlmGatewayService llmGateway;
+
+	@Autowired
+	private AtsResultCache atsResultCache;
+
+	@Value("${resume.async.timeoutSeconds:90}")
+	private long asyncTimeoutSeconds;
+
 	@PostMapping("/generate")
-	public ResponseEntity<Map<String, Object>> getResumeData(@RequestBody ResumeRequest resumeRequest) {
+	public DeferredResult<ResponseEntity<Map<String, Object>>> getResumeData(@RequestBody ResumeRequest resumeRequest) {
+		DeferredResult<ResponseEntity<Map<String, Object>>> deferred = newDeferredResult();
 		try {
 			// Validate input
 			if (resumeRequest == null || resumeRequest.getUserResumeDescription() == null ||
@@ -40,7 +66,8 @@ public class resumeController {
 				Map<String, Object> errorResponse = new HashMap<>();
 				errorResponse.put("error", "Invalid input");
 				errorResponse.put("message", "User resume description is required");
-				return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+				deferred.setResult(new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST));
+				return deferred;
 			}
 
 			// Get template type from request, default to "modern" if not provided
@@ -49,42 +76,205 @@ public class resumeController {
 				templateType = "modern";
 			}
 
-			Map<String, Object> jsonObject = resumeService
-					.generateResumeResponse(resumeRequest.getUserResumeDescription(), templateType);
-			return new ResponseEntity<>(jsonObject, HttpStatus.OK);
-		} catch (IOException e) {
-			Map<String, Object> errorResponse = new HashMap<>();
-			errorResponse.put("error", "Failed to load prompt template");
-			errorResponse.put("message", e.getMessage());
-			e.printStackTrace(); // Add logging for debugging
-			return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+			// The servlet thread is released here; the result is written once Gemini answers
+			resumeService.generateResumeResponseAsync(resumeRequest.getUserResumeDescription(), templateType,
+					resumeRequest.isBypassCache())
+					.whenComplete((jsonObject, error) -> {
+						if (error != null) {
+							deferred.setResult(internalError(error));
+						} else {
+							deferred.setResult(new ResponseEntity<>(jsonObject, HttpStatus.OK));
+						}
+					});
 		} catch (Exception e) {
+			deferred.setResult(internalError(e));
+		}
+		return deferred;
+	}
+
+	/**
+	 * Streaming variant of /generate over Server-Sent Events. Emits "think" events
+	 * with reasoning deltas, one "section" event per completed top-level field
+	 * (skills, experience, ...), then "done" with the same body /generate returns.
+	 */
+	@PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamResumeData(@RequestBody ResumeRequest resumeRequest) {
+		SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(asyncTimeoutSeconds));
+		if (resumeRequest == null || resumeRequest.getUserResumeDescription() == null ||
+				resumeRequest.getUserResumeDescription().trim().isEmpty()) {
 			Map<String, Object> errorResponse = new HashMap<>();
-			errorResponse.put("error", "Internal server error");
-			errorResponse.put("message", e.getMessage());
-			// Avoid returning raw stacktrace in API responses; log it server-side instead.
-			return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+			errorResponse.put("error", "Invalid input");
+			errorResponse.put("message", "User resume description is required");
+			sendAndComplete(emitter, "error", errorResponse);
+			return emitter;
 		}
+
+		StreamingResponseParser.Listener listener = new StreamingResponseParser.Listener() {
+			@Override
+			public void onThink(String delta) {
+				send(emitter, "think", Map.of("delta", delta));
+			}
+
+			@Override
+			public void onSection(String name, Object value) {
+				Map<String, Object> section = new HashMap<>();
+				section.put("name", name);
+				section.put("value", value);
+				send(emitter, "section", section);
+			}
+		};
+
+		resumeService.streamResumeResponse(resumeRequest.getUserResumeDescription(), resumeRequest.getTemplateType(),
+				resumeRequest.isBypassCache(), listener)
+				.whenComplete((result, error) -> {
+					if (error != null) {
+						sendAndComplete(emitter, "error", internalError(error).getBody());
+					} else {
+						sendAndComplete(emitter, result.containsKey("error") ? "error" : "done", result);
+					}
+				});
+		return emitter;
 	}
 
 	@PostMapping("/ats-score")
-	public ResponseEntity<Map<String, Object>> getAtsScore(@RequestParam MultipartFile file) {
+	public DeferredResult<ResponseEntity<Map<String, Object>>> getAtsScore(@RequestParam MultipartFile file,
+			@RequestParam(defaultValue = "false") boolean bypassCache) {
+		DeferredResult<ResponseEntity<Map<String, Object>>> deferred = newDeferredResult();
 		try {
 			if (file.isEmpty()) {
 				Map<String, Object> errorResponse = new HashMap<>();
 				errorResponse.put("error", "Invalid input");
 				errorResponse.put("message", "File is required");
-				return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+				deferred.setResult(new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST));
+				return deferred;
 			}
 
-			Map<String, Object> atsScore = atsScoreService.getAtsScore(file);
-			return new ResponseEntity<>(atsScore, HttpStatus.OK);
+			atsScoreService.getAtsScoreAsync(file, bypassCache)
+					.whenComplete((atsScore, error) -> {
+						if (error != null) {
+							deferred.setResult(internalError(error));
+						} else {
+							deferred.setResult(new ResponseEntity<>(atsScore, HttpStatus.OK));
+						}
+					});
 		} catch (Exception e) {
+			deferred.setResult(internalError(e));
+		}
+		return deferred;
+	}
+
+	/**
+	 * Scores many resumes in one request over Server-Sent Events. Emits one
+	 * "result" event per file as soon as it is scored (in completion order, with
+	 * the file's index and name), then "done" with a summary.
+	 */
+	@PostMapping(value = "/ats-score/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter getAtsScoreBatch(@RequestParam("files") List<MultipartFile> files,
+			@RequestParam(required = false) String jobDescription,
+			@RequestParam(defaultValue = "false") boolean bypassCache) {
+		SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(asyncTimeoutSeconds));
+		if (files == null || files.isEmpty() || files.stream().allMatch(MultipartFile::isEmpty)) {
 			Map<String, Object> errorResponse = new HashMap<>();
-			errorResponse.put("error", "Internal server error");
+			errorResponse.put("error", "Invalid input");
+			errorResponse.put("message", "At least one file is required");
+			sendAndComplete(emitter, "error", errorResponse);
+			return emitter;
+		}
+
+		try {
+			atsScoreService.scoreBatchAsync(files, jobDescription, bypassCache, (index, fileName, result) -> {
+				Map<String, Object> event = new HashMap<>();
+				event.put("index", index);
+				event.put("fileName", fileName);
+				event.put("result", result);
+				send(emitter, "result", event);
+			}).whenComplete((summary, error) -> {
+				if (error != null) {
+					sendAndComplete(emitter, "error", internalError(error).getBody());
+				} else {
+					sendAndComplete(emitter, "done", summary);
+				}
+			});
+		} catch (IllegalArgumentException e) {
+			Map<String, Object> errorResponse = new HashMap<>();
+			errorResponse.put("error", "Invalid input");
 			errorResponse.put("message", e.getMessage());
-			e.printStackTrace();
-			return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+			sendAndComplete(emitter, "error", errorResponse);
+		} catch (Exception e) {
+			sendAndComplete(emitter, "error", internalError(e).getBody());
+		}
+		return emitter;
+	}
+
+	@GetMapping("/llm-stats")
+	public ResponseEntity<Map<String, Object>> getLlmStats() {
+		Map<String, Object> response = new HashMap<>();
+		response.put("cache", llmGateway.getCacheStats());
+		response.put("providers", llmGateway.getRouterStats());
+		response.put("atsCache", atsResultCache.stats());
+		response.put("success", true);
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	private void send(SseEmitter emitter, String event, Object data) {
+		try {
+			emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+		} catch (IOException | IllegalStateException e) {
+			// Client disconnected or the emitter timed out; generation still completes and is cached
+		}
+	}
+
+	private void sendAndComplete(SseEmitter emitter, String event, Object data) {
+		send(emitter, event, data);
+		try {
+			emitter.complete();
+		} catch (IllegalStateException ignored) {
+		}
+	}
+
+	private DeferredResult<ResponseEntity<Map<String, Object>>> newDeferredResult() {
+		DeferredResult<ResponseEntity<Map<String, Object>>> deferred = new DeferredResult<>(
+				TimeUnit.SECONDS.toMillis(asyncTimeoutSeconds));
+		deferred.onTimeout(() -> {
+			Map<String, Object> errorResponse = new HashMap<>();
+			errorResponse.put("error", "Request timed out");
+			errorResponse.put("message", "The AI service did not respond in time. Please try again.");
+			deferred.setResult(new ResponseEntity<>(errorResponse, HttpStatus.GATEWAY_TIMEOUT));
+		});
+		return deferred;
+	}
+
+	private ResponseEntity<Map<String, Object>> internalError(Throwable error) {
+		Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		Map<String, Object> errorResponse = new HashMap<>();
+		if (e instanceof LlmOverloadedException overloaded) {
+			// Fast rejection while the upstream limiter is saturated; clients should back off
+			errorResponse.put("error", "Service busy");
+			errorResponse.put("message", overloaded.getMessage());
+			errorResponse.put("retryAfterSeconds", overloaded.getRetryAfterSeconds());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()))
+					.body(errorResponse);
+		}
+		if (e instanceof PdfLimitExceededException) {
+			errorResponse.put("error", "PDF too large");
+			errorResponse.put("message", e.getMessage());
+			return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+		}
+		if (e instanceof LlmUpstreamException) {
+			// The model provider answered with an error status; not a fault of this server
+			errorResponse.put("error", "Upstream model error");
+			errorResponse.put("message", e.getMessage());
+			return new ResponseEntity<>(errorResponse, HttpStatus.BAD_GATEWAY);
+		}
+		if (e instanceof PromptLoadException) {
+			errorResponse.put("error", "Failed to load prompt template");
+		} else {
+			errorResponse.put("error", "Internal server error");
 		}
+		errorResponse.put("message", e.getMessage());
+		// Avoid returning raw stacktrace in API responses; log it server-side instead.
+		e.printStackTrace();
+		return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 }
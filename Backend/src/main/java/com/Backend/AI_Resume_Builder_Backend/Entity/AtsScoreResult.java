@@ -0,0 +1,108 @@
+package com.Backend.AI_Resume_Builder_Backend.Entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted ATS score for one PDF (by SHA-256 of its bytes) under one version of
+ * ats_prompt.txt. A prompt change yields a new version, so older rows are simply
+ * no longer looked up.
+ */
+@Entity
+@Table(name = "ats_score_results", uniqueConstraints = @UniqueConstraint(columnNames = { "pdfHash",
+        "promptVersion" }))
+public class AtsScoreResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String pdfHash;
+
+    @Column(nullable = false, length = 32)
+    private String promptVersion;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String resultJson;
+
+    @Column(nullable = false)
+    private long hitCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public AtsScoreResult() {
+    }
+
+    public AtsScoreResult(String pdfHash, String promptVersion, String resultJson) {
+        this.pdfHash = pdfHash;
+        this.promptVersion = promptVersion;
+        this.resultJson = resultJson;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPdfHash() {
+        return pdfHash;
+    }
+
+    public void setPdfHash(String pdfHash) {
+        this.pdfHash = pdfHash;
+    }
+
+    public String getPromptVersion() {
+        return promptVersion;
+    }
+
+    public void setPromptVersion(String promptVersion) {
+        this.promptVersion = promptVersion;
+    }
+
+    public String getResultJson() {
+        return resultJson;
+    }
+
+    public void setResultJson(String resultJson) {
+        this.resultJson = resultJson;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,20 @@
+package com.Backend.AI_Resume_Builder_Backend.Repository;
+
+import com.Backend.AI_Resume_Builder_Backend.Entity.AtsScoreResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Optional;
+
+@Repository
+public interface AtsScoreResultRepository extends JpaRepository<AtsScoreResult, Long> {
+    Optional<AtsScoreResult> findByPdfHashAndPromptVersion(String pdfHash, String promptVersion);
+
+    @Modifying
+    @Transactional
+    @Query("update AtsScoreResult r set r.hitCount = r.hitCount + 1 where r.id = :id")
+    void incrementHitCount(@Param("id") Long id);
+}
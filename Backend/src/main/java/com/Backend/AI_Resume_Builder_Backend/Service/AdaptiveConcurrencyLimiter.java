@@ -0,0 +1,242 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * AIMD concurrency limiter for upstream LLM calls.
+ *
+ * At most {@code limit} calls run at once; further calls wait in a bounded FIFO
+ * queue and are rejected with {@link LlmOverloadedException} once the queue is
+ * full or they have waited longer than {@code maxQueueWait}. The limit grows by
+ * roughly one per window of successful calls and is cut multiplicatively when
+ * the provider answers 429/503, a call times out, or latency rises well above
+ * its long-term average.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double RATE_LIMIT_BACKOFF = 0.5;
+    private static final double LATENCY_BACKOFF = 0.9;
+    private static final double LATENCY_EWMA_ALPHA = 0.05;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final Duration maxQueueWait;
+    private final double latencyTolerance;
+
+    // Guarded by this
+    private double limit;
+    private int inFlight;
+    private double averageLatencyMillis;
+    private final ArrayDeque<Pending<?>> queue = new ArrayDeque<>();
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong congestionSignals = new AtomicLong();
+    private final Timer queueWait;
+
+    private static final class Pending<T> {
+        final Supplier<CompletableFuture<T>> call;
+        final CompletableFuture<T> promise = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+
+        Pending(Supplier<CompletableFuture<T>> call) {
+            this.call = call;
+        }
+    }
+
+    /**
+     * @param name             metric prefix, e.g. {@code llm.limiter}
+     * @param initialLimit     concurrency allowed before any feedback
+     * @param minLimit         floor for the adaptive limit
+     * @param maxLimit         ceiling for the adaptive limit
+     * @param maxQueue         callers allowed to wait once the limit is reached
+     * @param maxQueueWait     longest a caller may wait for a slot
+     * @param latencyTolerance multiple of the average latency treated as congestion
+     * @param registry         optional registry for limiter meters
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueue,
+            Duration maxQueueWait, double latencyTolerance, MeterRegistry registry) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxQueueWait = maxQueueWait;
+        this.latencyTolerance = Math.max(1.0, latencyTolerance);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+
+        if (registry != null) {
+            Gauge.builder(name + ".limit", this, AdaptiveConcurrencyLimiter::getLimit).register(registry);
+            Gauge.builder(name + ".inflight", this, AdaptiveConcurrencyLimiter::getInFlight).register(registry);
+            Gauge.builder(name + ".queue", this, AdaptiveConcurrencyLimiter::getQueueDepth).register(registry);
+            FunctionCounter.builder(name + ".rejected", rejected, AtomicLong::get).register(registry);
+            FunctionCounter.builder(name + ".congestion", congestionSignals, AtomicLong::get).register(registry);
+            this.queueWait = Timer.builder(name + ".queue.wait").register(registry);
+        } else {
+            this.queueWait = null;
+        }
+    }
+
+    /**
+     * Run {@code call} when a slot is free. The returned future fails with
+     * {@link LlmOverloadedException} if the call is shed.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        Pending<T> pending = new Pending<>(call);
+        boolean startNow;
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                startNow = true;
+            } else if (queue.size() < maxQueue) {
+                queue.addLast(pending);
+                startNow = false;
+            } else {
+                rejected.incrementAndGet();
+                return CompletableFuture.failedFuture(overloaded("queue is full"));
+            }
+        }
+
+        if (startNow) {
+            start(pending);
+        } else {
+            CompletableFuture.delayedExecutor(maxQueueWait.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> expire(pending));
+        }
+        return pending.promise;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("limit", (int) limit);
+            stats.put("inFlight", inFlight);
+            stats.put("queueDepth", queue.size());
+            stats.put("maxQueue", maxQueue);
+            stats.put("averageLatencyMillis", Math.round(averageLatencyMillis));
+        }
+        stats.put("rejected", rejected.get());
+        stats.put("congestionSignals", congestionSignals.get());
+        return stats;
+    }
+
+    private <T> void start(Pending<T> pending) {
+        if (queueWait != null) {
+            queueWait.record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+        long startedAt = System.nanoTime();
+        CompletableFuture<T> upstream;
+        try {
+            upstream = pending.call.get();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        upstream.whenComplete((value, error) -> {
+            onComplete(System.nanoTime() - startedAt, error);
+            if (error != null) {
+                pending.promise.completeExceptionally(error);
+            } else {
+                pending.promise.complete(value);
+            }
+        });
+    }
+
+    private void onComplete(long latencyNanos, Throwable error) {
+        List<Pending<?>> toStart = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            double latencyMillis = latencyNanos / 1_000_000.0;
+            boolean congested = isCongestionSignal(error);
+            if (congested) {
+                limit = Math.max(minLimit, limit * RATE_LIMIT_BACKOFF);
+            } else if (error == null) {
+                if (averageLatencyMillis > 0 && latencyMillis > averageLatencyMillis * latencyTolerance) {
+                    congested = true;
+                    limit = Math.max(minLimit, limit * LATENCY_BACKOFF);
+                } else {
+                    // Additive increase: about +1 once a full window has succeeded
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+                averageLatencyMillis = averageLatencyMillis == 0
+                        ? latencyMillis
+                        : averageLatencyMillis + LATENCY_EWMA_ALPHA * (latencyMillis - averageLatencyMillis);
+            }
+            if (congested) {
+                congestionSignals.incrementAndGet();
+            }
+            while (inFlight < (int) limit && !queue.isEmpty()) {
+                inFlight++;
+                toStart.add(queue.pollFirst());
+            }
+        }
+        for (Pending<?> pending : toStart) {
+            start(pending);
+        }
+    }
+
+    private void expire(Pending<?> pending) {
+        synchronized (this) {
+            if (!queue.remove(pending)) {
+                return;
+            }
+        }
+        rejected.incrementAndGet();
+        pending.promise.completeExceptionally(overloaded("waited " + maxQueueWait.toSeconds() + "s for a slot"));
+    }
+
+    private LlmOverloadedException overloaded(String reason) {
+        return new LlmOverloadedException("AI service is busy (" + name + ": " + reason + "). Please retry shortly.",
+                estimateRetryAfterSeconds());
+    }
+
+    /**
+     * Rough time until a slot frees up: queued work divided by concurrency, times
+     * the average call latency.
+     */
+    private synchronized long estimateRetryAfterSeconds() {
+        double latencySeconds = averageLatencyMillis > 0 ? averageLatencyMillis / 1000.0 : 5.0;
+        double waves = (queue.size() + 1) / Math.max(1.0, limit);
+        return Math.max(1, Math.min(120, (long) Math.ceil(latencySeconds * waves)));
+    }
+
+    private static boolean isCongestionSignal(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof LlmUpstreamException upstream) {
+            return upstream.isRateLimited();
+        }
+        return cause instanceof TimeoutException || cause instanceof HttpTimeoutException
+                || (cause != null && cause.getCause() instanceof TimeoutException);
+    }
+}
@@ -0,0 +1,90 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.Backend.AI_Resume_Builder_Backend.Entity.AtsScoreResult;
+import com.Backend.AI_Resume_Builder_Backend.Repository.AtsScoreResultRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Persisted ATS results keyed by (SHA-256 of the PDF bytes, prompt version).
+ *
+ * A hit skips both PDF extraction and the LLM call. Because the key includes
+ * the content-derived version of ats_prompt.txt, editing the prompt invalidates
+ * every stored result without any cleanup step. Only successful results are
+ * stored. Database errors are logged and treated as misses so scoring never
+ * depends on the cache.
+ */
+@Service
+public class AtsResultCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AtsScoreResultRepository repository;
+    private final boolean enabled;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AtsResultCache(AtsScoreResultRepository repository, MeterRegistry meterRegistry,
+            @Value("${ats.cache.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.enabled = enabled;
+        if (meterRegistry != null) {
+            FunctionCounter.builder("ats.cache.requests", hits, AtomicLong::get).tag("result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("ats.cache.requests", misses, AtomicLong::get).tag("result", "miss")
+                    .register(meterRegistry);
+        }
+    }
+
+    /** @return the stored result, or null on a miss */
+    public Map<String, Object> get(String pdfHash, String promptVersion) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            AtsScoreResult stored = repository.findByPdfHashAndPromptVersion(pdfHash, promptVersion).orElse(null);
+            if (stored == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            Map<String, Object> result = MAPPER.readValue(stored.getResultJson(),
+                    new TypeReference<Map<String, Object>>() {
+                    });
+            repository.incrementHitCount(stored.getId());
+            hits.incrementAndGet();
+            return result;
+        } catch (Exception e) {
+            System.err.println("ATS result cache lookup failed: " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void put(String pdfHash, String promptVersion, Map<String, Object> result) {
+        if (!enabled || result == null || result.get("data") == null || result.containsKey("error")) {
+            return;
+        }
+        try {
+            AtsScoreResult stored = repository.findByPdfHashAndPromptVersion(pdfHash, promptVersion)
+                    .orElseGet(() -> new AtsScoreResult(pdfHash, promptVersion, null));
+            stored.setResultJson(MAPPER.writeValueAsString(result));
+            repository.save(stored);
+        } catch (Exception e) {
+            // e.g. a concurrent insert of the same key; the other writer's row is just as good
+            System.err.println("ATS result cache store failed: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of("enabled", enabled, "hits", hits.get(), "misses", misses.get());
+    }
+}
@@ -3,8 +3,36 @@ package com.Backend.AI_Resume_Builder_Backend.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface AtsScoreService {
     Map<String, Object> getAtsScore(MultipartFile resumeFile) throws IOException;
+
+    /**
+     * Spools the upload on the calling thread, then extracts and scores it without
+     * blocking while the Gemini call is in flight. When {@code bypassCache} is set,
+     * a cached answer for the same prompt is ignored.
+     */
+    CompletableFuture<Map<String, Object>> getAtsScoreAsync(MultipartFile resumeFile, boolean bypassCache)
+            throws IOException;
+
+    /**
+     * Receives per-file results of {@link #scoreBatchAsync} in completion order.
+     */
+    interface BatchListener {
+        void onResult(int index, String fileName, Map<String, Object> result);
+    }
+
+    /**
+     * Scores many resumes at once. Text extraction runs in parallel and several
+     * resumes are packed into one LLM call where the prompt budget allows. Each
+     * file's result (or error) is passed to {@code listener} as soon as it is
+     * known; the returned future completes with a summary once all files are done.
+     *
+     * @param jobDescription optional job the resumes are scored against
+     */
+    CompletableFuture<Map<String, Object>> scoreBatchAsync(List<MultipartFile> resumeFiles, String jobDescription,
+            boolean bypassCache, BatchListener listener) throws IOException;
 }
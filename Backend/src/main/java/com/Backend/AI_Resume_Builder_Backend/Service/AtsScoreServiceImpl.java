@@ -1,42 +1,370 @@
 package com.Backend.AI_Resume_Builder_Backend.Service;
 
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class AtsScoreServiceImpl implements AtsScoreService {
 
-    private final GeminiService geminiService;
-    private final ResumeServiceImpl resumeService;
+    private final LlmGatewayService llmGateway;
+    private final PromptTemplateRegistry prompts;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final AtsResultCache resultCache;
+    // Identical resumes scored concurrently share one upstream call and one parsed result
+    private final SingleFlight<Map<String, Object>> inFlightScores;
+    private final int maxBatchFiles;
+    private final int maxResumesPerCall;
+    private final int maxCharsPerCall;
 
-    public AtsScoreServiceImpl(GeminiService geminiService, ResumeServiceImpl resumeService) {
-        this.geminiService = geminiService;
-        this.resumeService = resumeService;
+    public AtsScoreServiceImpl(LlmGatewayService llmGateway, PromptTemplateRegistry prompts,
+            PdfTextExtractor pdfTextExtractor, AtsResultCache resultCache, MeterRegistry meterRegistry,
+            @Value("${ats.batch.maxFiles:50}") int maxBatchFiles,
+            @Value("${ats.batch.maxResumesPerCall:5}") int maxResumesPerCall,
+            @Value("${ats.batch.maxCharsPerCall:40000}") int maxCharsPerCall) {
+        this.llmGateway = llmGateway;
+        this.prompts = prompts;
+        this.pdfTextExtractor = pdfTextExtractor;
+        this.resultCache = resultCache;
+        this.inFlightScores = new SingleFlight<>("ats", meterRegistry);
+        this.maxBatchFiles = maxBatchFiles;
+        this.maxResumesPerCall = Math.max(1, maxResumesPerCall);
+        this.maxCharsPerCall = maxCharsPerCall;
     }
 
     @Override
     public Map<String, Object> getAtsScore(MultipartFile resumeFile) throws IOException {
-        String resumeText = extractTextFromPdf(resumeFile);
-        String promptTemplate = resumeService.loadPromptFromFile("ats_prompt.txt");
-        String prompt = resumeService.putValueToTemplate(promptTemplate, Map.of("resumeText", resumeText));
+        return GeminiService.await(getAtsScoreAsync(resumeFile, false));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getAtsScoreAsync(MultipartFile resumeFile, boolean bypassCache)
+            throws IOException {
+        // Spool on the request thread (the multipart file goes away with it), extract on the pool
+        SpooledPdf pdf = pdfTextExtractor.spool(resumeFile);
+        String promptVersion = prompts.get("ats_prompt.txt").getVersion();
+        if (!bypassCache) {
+            Map<String, Object> cached = resultCache.get(pdf.sha256(), promptVersion);
+            if (cached != null) {
+                deleteQuietly(pdf.path());
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        return pdfTextExtractor.extractTextAsync(pdf.path())
+                .whenComplete((text, error) -> deleteQuietly(pdf.path()))
+                .thenCompose(text -> {
+                    try {
+                        return scoreText(text, bypassCache);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .thenApply(result -> store(pdf.sha256(), promptVersion, result));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> scoreBatchAsync(List<MultipartFile> resumeFiles,
+            String jobDescription, boolean bypassCache, BatchListener listener) throws IOException {
+        if (resumeFiles.size() > maxBatchFiles) {
+            throw new IllegalArgumentException("At most " + maxBatchFiles + " files can be scored per batch");
+        }
+        List<String> fileNames = new ArrayList<>(resumeFiles.size());
+        for (MultipartFile file : resumeFiles) {
+            fileNames.add(file.getOriginalFilename());
+        }
+        Batch batch = new Batch(fileNames, jobDescription == null ? "" : jobDescription.trim(), bypassCache,
+                prompts.get("ats_batch_prompt.txt"), prompts.get("ats_prompt.txt").getVersion(), listener);
+
+        // Multipart temp files are removed when the request thread returns, so spool them now
+        for (int i = 0; i < resumeFiles.size(); i++) {
+            int index = i;
+            SpooledPdf pdf;
+            try {
+                pdf = pdfTextExtractor.spool(resumeFiles.get(i));
+            } catch (IOException e) {
+                batch.extracted(index, null, e);
+                continue;
+            }
+            batch.pdfHashes[index] = pdf.sha256();
+            // Stored results come from the single-resume prompt, which has no job description
+            if (!bypassCache && batch.jobDescription.isEmpty()) {
+                Map<String, Object> cached = resultCache.get(pdf.sha256(), batch.atsPromptVersion);
+                if (cached != null) {
+                    deleteQuietly(pdf.path());
+                    batch.resolved(index, cached);
+                    continue;
+                }
+            }
+            pdfTextExtractor.extractTextAsync(pdf.path()).whenComplete((text, error) -> {
+                deleteQuietly(pdf.path());
+                batch.extracted(index, text, error);
+            });
+        }
+        if (resumeFiles.isEmpty()) {
+            batch.finishIfDone();
+        }
+        return batch.done;
+    }
+
+    private CompletableFuture<Map<String, Object>> scoreText(String resumeText, boolean bypassCache)
+            throws IOException {
+        PromptTemplate promptTemplate = prompts.get("ats_prompt.txt");
+        String prompt = promptTemplate.render(Map.of("resumeText", resumeText));
+
+        String promptVersion = promptTemplate.getVersion();
+        return inFlightScores.execute(ContentHash.sha256Hex(promptVersion, prompt),
+                () -> llmGateway.generate(promptVersion, prompt, bypassCache, ResumeServiceImpl::isWellFormed)
+                        .thenApply(ResumeServiceImpl::parseMultipleResponses));
+    }
+
+    // Persist off the completion thread, which may be an HTTP client thread
+    private Map<String, Object> store(String pdfHash, String promptVersion, Map<String, Object> result) {
+        CompletableFuture.runAsync(() -> resultCache.put(pdfHash, promptVersion, result));
+        return result;
+    }
 
-        String response = geminiService.generateContent(prompt);
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Failed to delete temp file " + path + ": " + e.getMessage());
+        }
+    }
 
-        return resumeService.parseMultipleResponses(response);
+    private static Map<String, Object> errorResult(String error, Throwable cause) {
+        Throwable e = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        Map<String, Object> result = new HashMap<>();
+        if (e instanceof LlmOverloadedException overloaded) {
+            result.put("error", "Service busy");
+            result.put("retryAfterSeconds", overloaded.getRetryAfterSeconds());
+        } else {
+            result.put("error", error);
+        }
+        if (e != null) {
+            result.put("message", e.getMessage());
+        }
+        return result;
     }
 
-    private String extractTextFromPdf(MultipartFile file) throws IOException {
-        try (InputStream inputStream = file.getInputStream();
-                PDDocument document = PDDocument.load(inputStream)) {
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            return pdfStripper.getText(document);
+    /**
+     * State of one batch request: extracted resumes are collected into packs
+     * that are sent to the model as soon as they are full, and the last partial
+     * pack is sent once every file has been extracted. The batch is done when
+     * every file is extracted and every model call has finished.
+     */
+    private final class Batch {
+        final List<String> fileNames;
+        final String jobDescription;
+        final boolean bypassCache;
+        final PromptTemplate batchPrompt;
+        final String atsPromptVersion;
+        final BatchListener listener;
+        final String[] pdfHashes;
+        final CompletableFuture<Map<String, Object>> done = new CompletableFuture<>();
+
+        final boolean[] reported;
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicInteger llmCalls = new AtomicInteger();
+
+        // Guarded by this
+        final Map<Integer, String> pack = new LinkedHashMap<>();
+        int packChars;
+        int remaining;
+        // Packs taken but not yet answered; counted when taken, under the same lock
+        int outstanding;
+        boolean finished;
+
+        Batch(List<String> fileNames, String jobDescription, boolean bypassCache, PromptTemplate batchPrompt,
+                String atsPromptVersion, BatchListener listener) {
+            this.fileNames = fileNames;
+            this.jobDescription = jobDescription;
+            this.bypassCache = bypassCache;
+            this.batchPrompt = batchPrompt;
+            this.atsPromptVersion = atsPromptVersion;
+            this.listener = listener;
+            this.pdfHashes = new String[fileNames.size()];
+            this.reported = new boolean[fileNames.size()];
+            this.remaining = fileNames.size();
+        }
+
+        void extracted(int index, String text, Throwable error) {
+            if (error != null) {
+                report(index, errorResult("Failed to read PDF", error));
+                accept(index, null);
+            } else if (text == null || text.isBlank()) {
+                report(index, errorResult("No text found in PDF", null));
+                accept(index, null);
+            } else {
+                accept(index, text);
+            }
+        }
+
+        // Answered without extraction, e.g. from the result cache
+        void resolved(int index, Map<String, Object> result) {
+            report(index, result);
+            accept(index, null);
+        }
+
+        // Count the file as extracted and queue its text, if any, for the next pack
+        private void accept(int index, String text) {
+            List<Map<String, String>> ready = new ArrayList<>();
+            synchronized (this) {
+                if (text != null) {
+                    if (!pack.isEmpty() && packChars + text.length() > maxCharsPerCall) {
+                        ready.add(takePack());
+                    }
+                    pack.put(index, text);
+                    packChars += text.length();
+                    if (pack.size() >= maxResumesPerCall) {
+                        ready.add(takePack());
+                    }
+                }
+                if (--remaining == 0 && !pack.isEmpty()) {
+                    ready.add(takePack());
+                }
+                outstanding += ready.size();
+            }
+            for (Map<String, String> resumes : ready) {
+                dispatch(resumes);
+            }
+            finishIfDone();
+        }
+
+        // Completes once: after the last extraction and the last model call, whichever comes later
+        void finishIfDone() {
+            synchronized (this) {
+                if (finished || remaining > 0 || outstanding > 0) {
+                    return;
+                }
+                finished = true;
+            }
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("files", fileNames.size());
+            summary.put("failed", failed.get());
+            summary.put("llmCalls", llmCalls.get());
+            done.complete(summary);
+        }
+
+        // Keys are resume ids ("r<index>") as they appear in the prompt
+        private Map<String, String> takePack() {
+            Map<String, String> resumes = new LinkedHashMap<>();
+            pack.forEach((index, text) -> resumes.put("r" + index, text));
+            pack.clear();
+            packChars = 0;
+            return resumes;
+        }
+
+        private void dispatch(Map<String, String> resumes) {
+            llmCalls.incrementAndGet();
+            CompletableFuture<?> call;
+            try {
+                call = resumes.size() == 1 && jobDescription.isEmpty()
+                        ? scoreSingle(resumes)
+                        : scorePack(resumes);
+            } catch (RuntimeException e) {
+                // Still counted as outstanding, so it must complete
+                for (String id : resumes.keySet()) {
+                    report(indexOf(id), errorResult("Scoring failed", e));
+                }
+                call = CompletableFuture.completedFuture(null);
+            }
+            call.whenComplete((ignored, error) -> {
+                synchronized (this) {
+                    outstanding--;
+                }
+                finishIfDone();
+            });
+        }
+
+        // A lone resume uses the regular prompt, sharing its cache entries with /ats-score
+        private CompletableFuture<?> scoreSingle(Map<String, String> resumes) {
+            Map.Entry<String, String> entry = resumes.entrySet().iterator().next();
+            int index = indexOf(entry.getKey());
+            try {
+                return scoreText(entry.getValue(), bypassCache).handle((result, error) -> {
+                    if (error == null && pdfHashes[index] != null) {
+                        store(pdfHashes[index], atsPromptVersion, result);
+                    }
+                    report(index, error != null ? errorResult("Scoring failed", error) : result);
+                    return null;
+                });
+            } catch (IOException e) {
+                report(index, errorResult("Failed to load prompt template", e));
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+
+        private CompletableFuture<?> scorePack(Map<String, String> resumes) {
+            int capacity = 0;
+            for (String text : resumes.values()) {
+                capacity += text.length() + 32;
+            }
+            StringBuilder body = new StringBuilder(capacity);
+            resumes.forEach((id, text) -> body.append("=== RESUME ").append(id).append(" ===\n")
+                    .append(text).append("\n\n"));
+            String prompt = batchPrompt.render(Map.of("jobDescription", jobDescription, "resumes", body.toString()));
+
+            StreamingResponseParser parser = new StreamingResponseParser(new StreamingResponseParser.Listener() {
+                @Override
+                public void onThink(String delta) {
+                }
+
+                @Override
+                public void onSection(String name, Object value) {
+                    if (!resumes.containsKey(name)) {
+                        return;
+                    }
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("think", null);
+                    result.put("data", value instanceof Map ? value : null);
+                    if (!(value instanceof Map)) {
+                        result.put("error", "Failed to parse JSON response");
+                    }
+                    report(indexOf(name), result);
+                }
+            });
+            return llmGateway.stream(batchPrompt.getVersion(), prompt, bypassCache, parser::accept,
+                    response -> parser.isComplete())
+                    .handle((text, error) -> {
+                        for (String id : resumes.keySet()) {
+                            report(indexOf(id), error != null
+                                    ? errorResult("Scoring failed", error)
+                                    : errorResult("No result returned for this resume", null));
+                        }
+                        return null;
+                    });
+        }
+
+        // First result per file wins; later reports (e.g. pack fallbacks) are ignored
+        private void report(int index, Map<String, Object> result) {
+            synchronized (this) {
+                if (reported[index]) {
+                    return;
+                }
+                reported[index] = true;
+            }
+            if (result.containsKey("error")) {
+                failed.incrementAndGet();
+            }
+            listener.onResult(index, fileNames.get(index), result);
+        }
+
+        private static int indexOf(String id) {
+            return Integer.parseInt(id.substring(1));
         }
     }
 }
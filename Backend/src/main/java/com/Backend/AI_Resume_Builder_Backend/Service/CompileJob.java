@@ -0,0 +1,100 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * One submitted LaTeX compile. The PDF is kept until the job expires, so
+ * clients can fetch it after being told (by polling or SSE) that it is ready.
+ * It lives in the PDF cache and can be evicted from there earlier under disk
+ * pressure.
+ */
+public class CompileJob {
+
+    public enum Status { PENDING, SUCCEEDED, FAILED, SUPERSEDED }
+
+    private final String id;
+    private final Instant createdAt = Instant.now();
+    private final CompletableFuture<CompileJob> completion = new CompletableFuture<>();
+
+    private volatile Status status = Status.PENDING;
+    private volatile Instant completedAt;
+    private volatile PdfArtifact pdf;
+    private volatile String error;
+
+    CompileJob(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    /** @return the PDF once the job succeeded, otherwise {@code null} */
+    public PdfArtifact getPdf() {
+        return pdf;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isDone() {
+        return status != Status.PENDING;
+    }
+
+    /** Completes with this job once it leaves {@link Status#PENDING}. */
+    public CompletableFuture<CompileJob> completion() {
+        return completion;
+    }
+
+    public Map<String, Object> toStatus() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("jobId", id);
+        out.put("status", status.name().toLowerCase());
+        out.put("createdAt", createdAt.toString());
+        if (completedAt != null) {
+            out.put("completedAt", completedAt.toString());
+            out.put("durationMillis", completedAt.toEpochMilli() - createdAt.toEpochMilli());
+        }
+        if (pdf != null) {
+            out.put("pdfId", pdf.id());
+            out.put("sizeBytes", pdf.size());
+            out.put("etag", pdf.etag());
+        }
+        if (error != null) {
+            out.put("message", error);
+        }
+        return out;
+    }
+
+    void complete(PdfArtifact result, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause == null) {
+            pdf = result;
+            status = Status.SUCCEEDED;
+        } else if (cause instanceof CancellationException) {
+            error = "A newer preview from the same client replaced this compile";
+            status = Status.SUPERSEDED;
+        } else {
+            error = cause.getMessage();
+            status = Status.FAILED;
+        }
+        completedAt = Instant.now();
+        completion.complete(this);
+    }
+}
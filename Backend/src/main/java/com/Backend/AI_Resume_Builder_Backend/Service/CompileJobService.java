@@ -0,0 +1,104 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Asynchronous compile jobs. Submitting returns at once with a job id; the
+ * compile runs on the scheduler and clients learn the outcome by polling or
+ * over SSE, so no request thread or proxy connection waits for the compiler.
+ * Finished jobs and their PDFs are kept for {@code latex.jobs.retentionMinutes}.
+ */
+@Service
+public class CompileJobService {
+
+    private final LatexCompileService compileService;
+    private final Duration retention;
+    private final int maxJobs;
+    private final Map<String, CompileJob> jobs = new ConcurrentHashMap<>();
+
+    public CompileJobService(LatexCompileService compileService,
+            MeterRegistry meterRegistry,
+            @Value("${latex.jobs.retentionMinutes:10}") long retentionMinutes,
+            @Value("${latex.jobs.maxJobs:500}") int maxJobs) {
+        this.compileService = compileService;
+        this.retention = Duration.ofMinutes(Math.max(1, retentionMinutes));
+        this.maxJobs = Math.max(1, maxJobs);
+        if (meterRegistry != null) {
+            Gauge.builder("latex.jobs.retained", jobs, Map::size).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Queue a compile. Throws {@link CompileOverloadedException} instead of
+     * creating a job when the scheduler sheds it straight away or too many jobs
+     * are retained.
+     */
+    public CompileJob submit(String latexCode, CompileScheduler.Priority priority, String clientId) {
+        evictExpired();
+        if (jobs.size() >= maxJobs) {
+            throw new CompileOverloadedException("Too many compile jobs are retained. Please retry shortly.",
+                    Math.max(1, retention.toSeconds() / 10));
+        }
+        CompletableFuture<PdfArtifact> result = compileService.compileToPdfAsync(latexCode, priority, clientId);
+        rejectIfShed(result);
+
+        CompileJob job = new CompileJob(UUID.randomUUID().toString());
+        jobs.put(job.getId(), job);
+        result.whenComplete(job::complete);
+        return job;
+    }
+
+    /** @return the job, or {@code null} if it is unknown or has expired */
+    public CompileJob get(String jobId) {
+        CompileJob job = jobs.get(jobId);
+        if (job != null && isExpired(job, Instant.now())) {
+            jobs.remove(jobId, job);
+            return null;
+        }
+        return job;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of("retained", jobs.size(), "maxJobs", maxJobs, "retentionMinutes", retention.toMinutes());
+    }
+
+    private void evictExpired() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> isExpired(job, now));
+    }
+
+    private boolean isExpired(CompileJob job, Instant now) {
+        return job.isDone() && job.getCompletedAt().plus(retention).isBefore(now);
+    }
+
+    private static void rejectIfShed(CompletableFuture<PdfArtifact> result) {
+        if (!result.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            result.getNow(null);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CompileOverloadedException overloaded) {
+                throw overloaded;
+            }
+        } catch (RuntimeException ignored) {
+            // Other immediate failures are reported through the job
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+/**
+ * Raised when a LaTeX compile is shed because every worker is busy and the
+ * queue is full (or the job waited too long). Controllers map it to
+ * {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ */
+public class CompileOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CompileOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,274 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bounded scheduler for LaTeX compiles.
+ *
+ * At most {@code workers} compiles run at once; further jobs wait in a bounded
+ * queue where interactive previews are started before downloads. A new preview
+ * from a client replaces that client's queued preview, which is cancelled, so
+ * someone typing in the editor never has more than one compile waiting. Jobs
+ * are rejected with {@link CompileOverloadedException} once the queue is full
+ * or they have waited longer than {@code maxQueueWait}.
+ */
+public class CompileScheduler {
+
+    public enum Priority { PREVIEW, DOWNLOAD }
+
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+
+    private final int workers;
+    private final int maxQueue;
+    private final Duration maxQueueWait;
+    private final ExecutorService executor;
+
+    // Guarded by this
+    private int running;
+    private int queued;
+    private double averageCompileMillis;
+    private final EnumMap<Priority, ArrayDeque<Job>> queues = new EnumMap<>(Priority.class);
+    private final Map<String, Job> queuedPreviews = new HashMap<>();
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final EnumMap<Priority, Timer> queueWait = new EnumMap<>(Priority.class);
+
+    private static final class Job {
+        final Callable<PdfArtifact> work;
+        final Priority priority;
+        final String clientId;
+        final CompletableFuture<PdfArtifact> promise = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+
+        Job(Callable<PdfArtifact> work, Priority priority, String clientId) {
+            this.work = work;
+            this.priority = priority;
+            this.clientId = clientId;
+        }
+    }
+
+    /**
+     * @param workers      compiles allowed to run at once; 0 or less uses the
+     *                     number of cores
+     * @param maxQueue     jobs allowed to wait once all workers are busy
+     * @param maxQueueWait longest a job may wait for a worker
+     * @param registry     optional registry for the {@code latex.scheduler.*} meters
+     */
+    public CompileScheduler(int workers, int maxQueue, Duration maxQueueWait, MeterRegistry registry) {
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxQueueWait = maxQueueWait;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread thread = new Thread(r, "latex-compile-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+
+        if (registry != null) {
+            for (Priority priority : Priority.values()) {
+                String tag = priority.name().toLowerCase();
+                Gauge.builder("latex.scheduler.queue", this, scheduler -> scheduler.getQueueDepth(priority))
+                        .tag("priority", tag).register(registry);
+                queueWait.put(priority, Timer.builder("latex.scheduler.queue.wait").tag("priority", tag)
+                        .register(registry));
+            }
+            Gauge.builder("latex.scheduler.running", this, CompileScheduler::getRunning).register(registry);
+            FunctionCounter.builder("latex.scheduler.rejected", rejected, AtomicLong::get).register(registry);
+            FunctionCounter.builder("latex.scheduler.superseded", superseded, AtomicLong::get).register(registry);
+        }
+    }
+
+    /**
+     * Run {@code work} on a compile worker. The returned future fails with
+     * {@link CompileOverloadedException} if the job is shed, and is cancelled if
+     * a newer preview from the same client replaces it while queued.
+     *
+     * @param clientId identifies the user or session for superseding; may be null
+     */
+    public CompletableFuture<PdfArtifact> submit(Callable<PdfArtifact> work, Priority priority, String clientId) {
+        Job job = new Job(work, priority, clientId);
+        Job replaced = null;
+        boolean startNow = false;
+        boolean accepted = true;
+        synchronized (this) {
+            if (priority == Priority.PREVIEW && clientId != null) {
+                replaced = queuedPreviews.remove(clientId);
+                if (replaced != null && queues.get(Priority.PREVIEW).remove(replaced)) {
+                    queued--;
+                }
+            }
+            if (running < workers) {
+                running++;
+                startNow = true;
+            } else if (queued < maxQueue) {
+                queues.get(priority).addLast(job);
+                queued++;
+                if (priority == Priority.PREVIEW && clientId != null) {
+                    queuedPreviews.put(clientId, job);
+                }
+            } else {
+                accepted = false;
+            }
+        }
+
+        if (replaced != null) {
+            superseded.incrementAndGet();
+            replaced.promise.cancel(false);
+        }
+        if (!accepted) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(overloaded("queue is full"));
+        }
+        if (startNow) {
+            start(job);
+        } else {
+            CompletableFuture.delayedExecutor(maxQueueWait.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> expire(job));
+        }
+        return job.promise;
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    public synchronized int getQueueDepth(Priority priority) {
+        return queues.get(priority).size();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("workers", workers);
+            stats.put("running", running);
+            stats.put("maxQueue", maxQueue);
+            for (Priority priority : Priority.values()) {
+                stats.put(priority.name().toLowerCase() + "Queued", queues.get(priority).size());
+            }
+            stats.put("averageCompileMillis", Math.round(averageCompileMillis));
+        }
+        stats.put("rejected", rejected.get());
+        stats.put("superseded", superseded.get());
+        return stats;
+    }
+
+    private void start(Job job) {
+        Timer timer = queueWait.get(job.priority);
+        if (timer != null) {
+            timer.record(System.nanoTime() - job.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    job.promise.complete(job.work.call());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    job.promise.completeExceptionally(e);
+                } catch (Exception e) {
+                    job.promise.completeExceptionally(e);
+                } finally {
+                    onComplete(System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down while the job was queued
+            synchronized (this) {
+                running--;
+            }
+            job.promise.completeExceptionally(e);
+        }
+    }
+
+    private void onComplete(long elapsedNanos) {
+        List<Job> toStart = new ArrayList<>();
+        synchronized (this) {
+            running--;
+            double elapsedMillis = elapsedNanos / 1_000_000.0;
+            averageCompileMillis = averageCompileMillis == 0
+                    ? elapsedMillis
+                    : averageCompileMillis + LATENCY_EWMA_ALPHA * (elapsedMillis - averageCompileMillis);
+            while (running < workers) {
+                Job next = pollNext();
+                if (next == null) {
+                    break;
+                }
+                running++;
+                toStart.add(next);
+            }
+        }
+        for (Job job : toStart) {
+            start(job);
+        }
+    }
+
+    // Caller holds the lock; previews first, FIFO within a priority
+    private Job pollNext() {
+        for (Priority priority : Priority.values()) {
+            Job job = queues.get(priority).pollFirst();
+            if (job != null) {
+                queued--;
+                if (job.clientId != null) {
+                    queuedPreviews.remove(job.clientId, job);
+                }
+                return job;
+            }
+        }
+        return null;
+    }
+
+    private void expire(Job job) {
+        synchronized (this) {
+            if (!queues.get(job.priority).remove(job)) {
+                return;
+            }
+            queued--;
+            if (job.clientId != null) {
+                queuedPreviews.remove(job.clientId, job);
+            }
+        }
+        rejected.incrementAndGet();
+        job.promise.completeExceptionally(overloaded("waited " + maxQueueWait.toSeconds() + "s for a worker"));
+    }
+
+    private CompileOverloadedException overloaded(String reason) {
+        return new CompileOverloadedException("LaTeX compiler is busy (" + reason + "). Please retry shortly.",
+                estimateRetryAfterSeconds());
+    }
+
+    /** Queued work divided by workers, times the average compile time. */
+    private synchronized long estimateRetryAfterSeconds() {
+        double compileSeconds = averageCompileMillis > 0 ? averageCompileMillis / 1000.0 : 2.0;
+        double waves = (queued + 1) / (double) workers;
+        return Math.max(1, Math.min(120, (long) Math.ceil(compileSeconds * waves)));
+    }
+}
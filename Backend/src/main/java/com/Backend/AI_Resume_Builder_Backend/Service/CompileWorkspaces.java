@@ -0,0 +1,252 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Compile directories that persist between compiles of the same client and
+ * document, so .aux/.toc state from the previous run is reused and an edit in
+ * the live editor is not a cold compile. A client with several documents open
+ * gets a workspace per document, so their auxiliary files never mix.
+ *
+ * One compile runs in a workspace at a time. Workspaces idle for longer than
+ * {@code idleTimeout} are deleted by a background sweep; when all workspaces
+ * together exceed {@code maxBytes}, the least recently used idle ones are
+ * deleted first. A workspace that grows past {@code maxBytesPerWorkspace} is
+ * emptied after its compile.
+ */
+public class CompileWorkspaces {
+
+    public interface Work<T> {
+        T run(Path dir) throws IOException, InterruptedException;
+    }
+
+    private static final class Workspace {
+        final Path dir;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long bytes;
+
+        Workspace(Path dir) {
+            this.dir = dir;
+        }
+    }
+
+    private final Path workspaceRoot;
+    private final Path tectonicCacheDir;
+    private final Duration idleTimeout;
+    private final long maxBytes;
+    private final long maxBytesPerWorkspace;
+    private final Map<String, Workspace> workspaces = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong idleEvictions = new AtomicLong();
+    private final AtomicLong quotaEvictions = new AtomicLong();
+
+    /**
+     * @param root                 parent directory; workspaces live in
+     *                             {@code root/ws} and are cleared on startup
+     * @param tectonicCacheDir     shared tectonic cache, or {@code null} for
+     *                             {@code root/tectonic-cache}; not counted in the quota
+     * @param idleTimeout          unused workspaces are deleted after this long
+     * @param maxBytes             disk quota for all workspaces together
+     * @param maxBytesPerWorkspace a workspace above this is emptied after a compile
+     * @param registry             optional registry for {@code latex.workspace.*} meters
+     */
+    public CompileWorkspaces(Path root, Path tectonicCacheDir, Duration idleTimeout, long maxBytes,
+            long maxBytesPerWorkspace, MeterRegistry registry) throws IOException {
+        this.workspaceRoot = root.resolve("ws");
+        this.tectonicCacheDir = tectonicCacheDir != null ? tectonicCacheDir : root.resolve("tectonic-cache");
+        this.idleTimeout = idleTimeout;
+        this.maxBytes = maxBytes;
+        this.maxBytesPerWorkspace = maxBytesPerWorkspace;
+
+        // Nothing tracks workspaces left by a previous run
+        deleteTree(workspaceRoot);
+        Files.createDirectories(workspaceRoot);
+        Files.createDirectories(this.tectonicCacheDir);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "latex-workspace-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, Math.min(60, idleTimeout.toSeconds() / 2));
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.SECONDS);
+
+        if (registry != null) {
+            Gauge.builder("latex.workspace.count", workspaces, Map::size).register(registry);
+            Gauge.builder("latex.workspace.bytes", this, CompileWorkspaces::totalBytes).baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("latex.workspace.evictions", idleEvictions, AtomicLong::get)
+                    .tag("reason", "idle").register(registry);
+            FunctionCounter.builder("latex.workspace.evictions", quotaEvictions, AtomicLong::get)
+                    .tag("reason", "quota").register(registry);
+        }
+    }
+
+    public Path getTectonicCacheDir() {
+        return tectonicCacheDir;
+    }
+
+    /**
+     * Run {@code work} in the workspace of {@code clientId} and
+     * {@code document}, creating it if needed. Waits while another compile of
+     * the same document is using it.
+     *
+     * @param document anything that identifies the document, such as its class and packages
+     */
+    public <T> T run(String clientId, String document, Work<T> work) throws IOException, InterruptedException {
+        String key = ContentHash.sha256Hex(clientId, document).substring(0, 32);
+        T result;
+        while (true) {
+            Workspace workspace = workspaces.computeIfAbsent(key, k -> new Workspace(workspaceRoot.resolve(k)));
+            workspace.lock.lockInterruptibly();
+            try {
+                if (workspaces.get(key) != workspace) {
+                    // Evicted while we waited for the lock
+                    continue;
+                }
+                if (Files.isDirectory(workspace.dir)) {
+                    reused.incrementAndGet();
+                } else {
+                    Files.createDirectories(workspace.dir);
+                    created.incrementAndGet();
+                }
+                try {
+                    result = work.run(workspace.dir);
+                } finally {
+                    workspace.lastUsed = System.currentTimeMillis();
+                    workspace.bytes = sizeOf(workspace.dir);
+                    if (workspace.bytes > maxBytesPerWorkspace) {
+                        deleteTree(workspace.dir);
+                        workspace.bytes = 0;
+                    }
+                }
+            } finally {
+                workspace.lock.unlock();
+            }
+            break;
+        }
+        enforceQuota();
+        return result;
+    }
+
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workspaces", workspaces.size());
+        stats.put("bytes", totalBytes());
+        stats.put("maxBytes", maxBytes);
+        stats.put("idleMinutes", idleTimeout.toMinutes());
+        stats.put("created", created.get());
+        stats.put("reused", reused.get());
+        stats.put("idleEvictions", idleEvictions.get());
+        stats.put("quotaEvictions", quotaEvictions.get());
+        return stats;
+    }
+
+    private long totalBytes() {
+        long total = 0;
+        for (Workspace workspace : workspaces.values()) {
+            total += workspace.bytes;
+        }
+        return total;
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeout.toMillis();
+        workspaces.forEach((key, workspace) -> {
+            if (workspace.lastUsed < cutoff && evict(key, workspace)) {
+                idleEvictions.incrementAndGet();
+            }
+        });
+    }
+
+    private void enforceQuota() {
+        if (totalBytes() <= maxBytes) {
+            return;
+        }
+        List<Map.Entry<String, Workspace>> byAge = new ArrayList<>(workspaces.entrySet());
+        byAge.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsed));
+        for (Map.Entry<String, Workspace> entry : byAge) {
+            if (totalBytes() <= maxBytes) {
+                return;
+            }
+            if (evict(entry.getKey(), entry.getValue())) {
+                quotaEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    // Skips workspaces with a compile in progress
+    private boolean evict(String key, Workspace workspace) {
+        if (!workspace.lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (!workspaces.remove(key, workspace)) {
+                return false;
+            }
+            deleteTree(workspace.dir);
+            return true;
+        } finally {
+            workspace.lock.unlock();
+        }
+    }
+
+    private static long sizeOf(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteTree(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a compiler process under supervision.
+ *
+ * Output is drained on a separate thread into a buffer that keeps only the
+ * last {@code maxLogBytes}, so a chatty compiler cannot fill the heap and a
+ * hung one that keeps writing cannot hold off the timeout. The wall-clock
+ * timeout is checked while the process runs; on expiry the whole process tree
+ * is killed. CPU time and peak resident memory of the tree are sampled while
+ * it runs, since the JDK reports nothing for a process that has exited: both
+ * are lower bounds, and a compile that exits before the first sample reports
+ * -1. Peak memory needs {@code /proc} and is -1 elsewhere.
+ */
+public final class CompilerProcess {
+
+    /**
+     * @param exitCode     exit status, or -1 if the process was killed
+     * @param output       combined stdout/stderr, tail only if it was longer
+     *                     than the buffer
+     * @param cpuMillis    user + system CPU time of the tree at the last
+     *                     sample, -1 if it was never sampled
+     * @param peakRssBytes peak resident memory of the tree at the last sample,
+     *                     -1 if unknown
+     */
+    public record Result(int exitCode, String output, boolean timedOut, long wallMillis, long cpuMillis,
+            long peakRssBytes) {
+    }
+
+    private static final long MIN_SAMPLE_MILLIS = 10;
+    private static final long MAX_SAMPLE_MILLIS = 200;
+
+    private static final AtomicInteger DRAINER_COUNT = new AtomicInteger();
+    private static final ExecutorService DRAINERS = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "latex-compile-output-" + DRAINER_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CompilerProcess() {
+    }
+
+    /**
+     * Start {@code builder} (stderr is merged into stdout) and wait for it, at
+     * most {@code timeout}. Interrupting the caller kills the process tree.
+     */
+    public static Result run(ProcessBuilder builder, Duration timeout, int maxLogBytes)
+            throws IOException, InterruptedException {
+        builder.redirectErrorStream(true);
+        long start = System.nanoTime();
+        Process process = builder.start();
+        TailBuffer log = new TailBuffer(maxLogBytes);
+        Future<?> drain = DRAINERS.submit(() -> drain(process.getInputStream(), log));
+
+        Usage usage = new Usage();
+        long deadline = start + timeout.toNanos();
+        boolean timedOut = false;
+        try {
+            long interval = MIN_SAMPLE_MILLIS;
+            while (!process.waitFor(Math.min(interval, remainingMillis(deadline)), TimeUnit.MILLISECONDS)) {
+                usage.sample(process.toHandle());
+                if (System.nanoTime() - deadline >= 0) {
+                    timedOut = true;
+                    killTree(process);
+                    process.waitFor(5, TimeUnit.SECONDS);
+                    break;
+                }
+                interval = Math.min(MAX_SAMPLE_MILLIS, interval * 2);
+            }
+        } catch (InterruptedException e) {
+            killTree(process);
+            closeStreams(process);
+            throw e;
+        }
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        try {
+            // Normally already done: the pipe closes when the tree exits
+            drain.get(1, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // A detached grandchild still holds the pipe; keep what was read
+            drain.cancel(true);
+        } catch (ExecutionException ignored) {
+        } finally {
+            // Interrupting the drainer does not unblock its read; closing our end does
+            closeStreams(process);
+        }
+        int exitCode = timedOut || process.isAlive() ? -1 : process.exitValue();
+        return new Result(exitCode, log.toString(), timedOut, wallMillis, usage.cpuMillis, usage.peakRssBytes);
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    private static void drain(InputStream in, TailBuffer log) {
+        byte[] chunk = new byte[8192];
+        try (in) {
+            int n;
+            while ((n = in.read(chunk)) >= 0) {
+                log.write(chunk, n);
+            }
+        } catch (IOException ignored) {
+            // Stream closed because the process was killed
+        }
+    }
+
+    private static void closeStreams(Process process) {
+        for (Closeable stream : List.of(process.getInputStream(), process.getOutputStream(),
+                process.getErrorStream())) {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /** Children are listed before the parent dies, or they would be re-parented and missed. */
+    private static void killTree(Process process) {
+        List<ProcessHandle> descendants = process.descendants().toList();
+        process.destroyForcibly();
+        for (ProcessHandle child : descendants) {
+            child.destroyForcibly();
+        }
+    }
+
+    /** Keeps the last {@code capacity} bytes written; TeX puts the error at the end of its log. */
+    private static final class TailBuffer {
+        private final byte[] buffer;
+        private long total;
+
+        TailBuffer(int capacity) {
+            this.buffer = new byte[Math.max(1024, capacity)];
+        }
+
+        synchronized void write(byte[] chunk, int length) {
+            for (int i = 0; i < length; i++) {
+                buffer[(int) (total++ % buffer.length)] = chunk[i];
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            if (total <= buffer.length) {
+                return new String(buffer, 0, (int) total, StandardCharsets.UTF_8);
+            }
+            int head = (int) (total % buffer.length);
+            byte[] ordered = new byte[buffer.length];
+            System.arraycopy(buffer, head, ordered, 0, buffer.length - head);
+            System.arraycopy(buffer, 0, ordered, buffer.length - head, head);
+            return "[... " + (total - buffer.length) + " earlier bytes of output omitted ...]\n"
+                    + new String(ordered, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Highest CPU time and resident memory seen across the process tree. */
+    private static final class Usage {
+        long cpuMillis = -1;
+        long peakRssBytes = -1;
+
+        void sample(ProcessHandle root) {
+            List<ProcessHandle> tree = new ArrayList<>();
+            tree.add(root);
+            root.descendants().forEach(tree::add);
+            long cpu = 0;
+            boolean cpuKnown = false;
+            long rss = 0;
+            boolean rssKnown = false;
+            for (ProcessHandle handle : tree) {
+                Duration cpuTime = handle.info().totalCpuDuration().orElse(null);
+                if (cpuTime != null) {
+                    cpu += cpuTime.toMillis();
+                    cpuKnown = true;
+                }
+                long hwm = peakRss(handle.pid());
+                if (hwm >= 0) {
+                    rss += hwm;
+                    rssKnown = true;
+                }
+            }
+            if (cpuKnown) {
+                cpuMillis = Math.max(cpuMillis, cpu);
+            }
+            if (rssKnown) {
+                peakRssBytes = Math.max(peakRssBytes, rss);
+            }
+        }
+
+        // VmHWM is the kernel's resident-set high-water mark for the process
+        private static long peakRss(long pid) {
+            Path status = Path.of("/proc", Long.toString(pid), "status");
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmHWM:")) {
+                        return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException ignored) {
+            }
+            return -1;
+        }
+    }
+}
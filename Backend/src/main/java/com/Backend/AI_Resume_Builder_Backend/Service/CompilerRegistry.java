@@ -0,0 +1,268 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * What each LaTeX engine can do, kept in memory.
+ *
+ * Every engine is probed with {@code --version} once when the registry is
+ * created and again every {@code refresh} on a background thread, so health
+ * checks and cache keys never start a process. Each engine has its own
+ * identity (executable and version banner) for the keys of what it produces;
+ * a failed probe marks the engine unavailable but keeps the last good version
+ * in its identity, so a slow {@code --version} under load does not invalidate
+ * cached PDFs and formats. Compiles report their wall time and outcome per
+ * engine into a {@link RollingStats} window.
+ *
+ * In auto mode {@link #plan()} orders the available engines by expected cost:
+ * median latency divided by success rate. Engines with fewer than
+ * {@link #MIN_SAMPLES} compiles keep their configured order and go first, so
+ * each engine gets measured. An engine that has not been used for
+ * {@code exploreInterval} is tried first once, so a slower engine's numbers
+ * do not go stale after it stops being chosen.
+ */
+public class CompilerRegistry {
+
+    private static final int STATS_WINDOW = 50;
+    // Fewer compiles than this are not enough to rank an engine
+    static final int MIN_SAMPLES = 5;
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final class Engine {
+        final String name;
+        final String executable;
+        final int order;
+        final RollingStats stats = new RollingStats(STATS_WINDOW);
+        final AtomicLong lastUsed = new AtomicLong(System.nanoTime());
+        volatile boolean available;
+        volatile String version = "";
+        volatile String error;
+        volatile Instant checkedAt;
+        volatile String identity;
+
+        Engine(String name, String executable, int order) {
+            this.name = name;
+            this.executable = executable;
+            this.order = order;
+            this.identity = executable + "=unavailable";
+        }
+
+        // Expected milliseconds per successful compile
+        double cost() {
+            return stats.percentile(50) / Math.max(0.05, stats.successRate());
+        }
+    }
+
+    private final String mode;
+    private final Map<String, Engine> engines = new LinkedHashMap<>();
+    private final long exploreIntervalNanos;
+    private final ScheduledExecutorService prober;
+
+    /**
+     * @param mode        auto, tectonic or pdflatex; only auto reorders engines
+     * @param executables engine name to executable, in the configured order
+     * @param refresh     time between background probes; zero probes only once
+     */
+    public CompilerRegistry(String mode, Map<String, String> executables, Duration refresh, Duration exploreInterval,
+            MeterRegistry registry) {
+        this.mode = mode;
+        int order = 0;
+        for (Map.Entry<String, String> entry : executables.entrySet()) {
+            engines.put(entry.getKey(), new Engine(entry.getKey(), entry.getValue(), order++));
+        }
+        this.exploreIntervalNanos = exploreInterval.toNanos();
+
+        probeAll();
+        if (refresh.isZero() || refresh.isNegative()) {
+            this.prober = null;
+        } else {
+            this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "latex-compiler-probe");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, refresh.toSeconds());
+            prober.scheduleWithFixedDelay(this::probeAll, period, period, TimeUnit.SECONDS);
+        }
+
+        if (registry != null) {
+            for (Engine engine : engines.values()) {
+                Gauge.builder("latex.compiler.available", engine, e -> e.available ? 1 : 0)
+                        .tag("engine", engine.name).register(registry);
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    /**
+     * Executable and version banner of {@code engine}, part of the key of every
+     * PDF and format it produces. Upgrading TeX changes it once a background
+     * probe sees the new version; a failed probe does not.
+     */
+    public String identity(String engine) {
+        Engine entry = engines.get(engine);
+        return entry == null ? engine + "=unregistered" : entry.identity;
+    }
+
+    /** Whether any engine answered {@code --version} at the last probe. */
+    public boolean anyAvailable() {
+        for (Engine engine : engines.values()) {
+            if (engine.available) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Engines to try for the next compile, best first. Outside auto mode, or
+     * when no engine is available, this is the configured order, so the
+     * compile fails with the usual "not found" hint.
+     */
+    public List<String> plan() {
+        return order(true);
+    }
+
+    /** The order {@link #plan()} would use, without claiming an exploration slot; for status output. */
+    public List<String> ranking() {
+        return order(false);
+    }
+
+    private List<String> order(boolean explore) {
+        List<Engine> candidates = new ArrayList<>();
+        for (Engine engine : engines.values()) {
+            if (engine.available) {
+                candidates.add(engine);
+            }
+        }
+        if (!"auto".equals(mode) || candidates.isEmpty()) {
+            return new ArrayList<>(engines.keySet());
+        }
+
+        List<Engine> unmeasured = new ArrayList<>();
+        List<Engine> measured = new ArrayList<>();
+        for (Engine engine : candidates) {
+            (engine.stats.count() < MIN_SAMPLES ? unmeasured : measured).add(engine);
+        }
+        measured.sort(Comparator.comparingDouble(Engine::cost).thenComparingInt(e -> e.order));
+
+        List<String> plan = new ArrayList<>(candidates.size());
+        for (Engine engine : unmeasured) {
+            plan.add(engine.name);
+        }
+        Engine stale = null;
+        for (int i = 1; explore && i < measured.size() && stale == null; i++) {
+            Engine engine = measured.get(i);
+            long last = engine.lastUsed.get();
+            if (System.nanoTime() - last >= exploreIntervalNanos
+                    && engine.lastUsed.compareAndSet(last, System.nanoTime())) {
+                stale = engine;
+            }
+        }
+        if (stale != null) {
+            plan.add(stale.name);
+        }
+        for (Engine engine : measured) {
+            if (engine != stale) {
+                plan.add(engine.name);
+            }
+        }
+        return plan;
+    }
+
+    /** Record one compile; engines that are not registered (format builds) are ignored. */
+    public void record(String engineName, long wallMillis, boolean success) {
+        Engine engine = engines.get(engineName);
+        if (engine != null) {
+            engine.stats.record(wallMillis, success);
+            engine.lastUsed.set(System.nanoTime());
+        }
+    }
+
+    /** Per engine: executable, availability, version, last probe and rolling compile stats. */
+    public List<Map<String, Object>> stats() {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Engine engine : engines.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("engine", engine.name);
+            entry.put("command", engine.executable);
+            entry.put("available", engine.available);
+            if (engine.available) {
+                entry.put("version", engine.version);
+            } else if (engine.error != null) {
+                entry.put("error", engine.error);
+            }
+            entry.put("checkedAt", engine.checkedAt == null ? null : engine.checkedAt.toString());
+            entry.put("compiles", engine.stats.snapshot());
+            out.add(entry);
+        }
+        return out;
+    }
+
+    /** Probe every engine; runs on the probe thread after startup. */
+    void probeAll() {
+        for (Engine engine : engines.values()) {
+            try {
+                String banner = probeVersion(engine.executable);
+                engine.version = banner.trim();
+                engine.error = null;
+                engine.available = isTexBanner(banner);
+                if (!engine.available) {
+                    engine.error = "Unrecognised --version output";
+                }
+            } catch (IOException e) {
+                engine.available = false;
+                engine.error = e.getMessage();
+            } catch (InterruptedException e) {
+                // Shutting down; keep the previous state
+                Thread.currentThread().interrupt();
+                return;
+            }
+            engine.checkedAt = Instant.now();
+            if (engine.available) {
+                String identity = engine.executable + "=" + engine.version.lines().findFirst().orElse("");
+                if (!identity.equals(engine.identity)) {
+                    System.out.println("LaTeX compiler " + engine.name + ": " + identity);
+                    engine.identity = identity;
+                }
+            }
+        }
+    }
+
+    /** Run {@code exe --version}; tectonic and pdflatex both support it. */
+    private static String probeVersion(String exe) throws IOException, InterruptedException {
+        CompilerProcess.Result result = CompilerProcess.run(new ProcessBuilder(exe, "--version"), PROBE_TIMEOUT,
+                4096);
+        if (result.timedOut()) {
+            throw new IOException("'" + exe + " --version' timed out");
+        }
+        if (result.exitCode() != 0) {
+            throw new IOException("'" + exe + " --version' exited with " + result.exitCode());
+        }
+        return result.output();
+    }
+
+    private static boolean isTexBanner(String banner) {
+        String text = banner.toLowerCase();
+        return text.contains("tectonic") || text.contains("pdftex") || text.contains("miktex");
+    }
+}
@@ -5,61 +5,323 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.annotation.PreDestroy;
 
 @Service
-public class GeminiService {
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent?key=";
+public class GeminiService implements LlmProvider {
+    private static final String MODEL = "gemini-2.0-flash";
+    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/" + MODEL
+            + ":generateContent?key=";
+    private static final String GEMINI_STREAM_URL = "https://generativelanguage.googleapis.com/v1beta/models/" + MODEL
+            + ":streamGenerateContent?alt=sse&key=";
     private final String apiKey;
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final Duration requestTimeout;
+    private final ExecutorService executor;
+    // One shared client so HTTP/2 connections to the API are reused and multiplexed across requests
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper = new ObjectMapper();
 
-    public GeminiService(@Value("${gemini.api.key:}") String apiKey) {
+    public GeminiService(@Value("${gemini.api.key:}") String apiKey,
+            @Value("${gemini.http.connectTimeoutSeconds:10}") int connectTimeoutSeconds,
+            @Value("${gemini.http.requestTimeoutSeconds:60}") int requestTimeoutSeconds,
+            @Value("${gemini.http.threads:4}") int threads) {
         if (apiKey == null || apiKey.trim().isEmpty()) {
             throw new IllegalStateException(
                     "Gemini API key is not configured. Please set 'gemini.api.key' in application.properties or environment variables.");
         }
         this.apiKey = apiKey.trim();
+        this.requestTimeout = Duration.ofSeconds(Math.max(1, requestTimeoutSeconds));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "gemini-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(Math.max(1, connectTimeoutSeconds)))
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "gemini";
     }
 
+    @Override
+    public String getModel() {
+        return MODEL;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(String prompt) {
+        return generateContentAsync(prompt);
+    }
+
+    @Override
+    public CompletableFuture<String> streamAsync(String prompt, Consumer<String> onChunk) {
+        return streamContentAsync(prompt, onChunk);
+    }
+
+    /**
+     * Blocking variant kept for callers that are not async-aware. Prefer
+     * {@link #generateContentAsync(String)} on request-handling paths.
+     */
     public String generateContent(String prompt) throws IOException {
-        String requestBody = String.format("{\"contents\":[{\"parts\":[{\"text\":\"%s\"}]}]}",
-                prompt.replace("\"", "\\\""));
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(GEMINI_API_URL + apiKey))
+        return await(generateContentAsync(prompt));
+    }
+
+    public CompletableFuture<String> generateContentAsync(String prompt) {
+        return generateContentAsync(prompt, requestTimeout);
+    }
+
+    /**
+     * Send the prompt without blocking the calling thread.
+     *
+     * @param prompt  fully rendered prompt text
+     * @param timeout overall budget for this call; the connect timeout is shared
+     *                by the client
+     * @return future completing with the first candidate's text, or
+     *         exceptionally with an {@link IOException}
+     */
+    public CompletableFuture<String> generateContentAsync(String prompt, Duration timeout) {
+        HttpRequest request;
+        try {
+            request = buildRequest(GEMINI_API_URL, prompt, timeout);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw new CompletionException(toIOException(error));
+                    }
+                    try {
+                        return extractText(response);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    /**
+     * Stream the completion through Gemini's {@code streamGenerateContent}
+     * endpoint. Each text fragment is passed to {@code onChunk} as soon as it
+     * arrives, on the client's executor.
+     *
+     * @return future completing with the full concatenated text
+     */
+    public CompletableFuture<String> streamContentAsync(String prompt, Consumer<String> onChunk) {
+        HttpRequest request;
+        try {
+            request = buildRequest(GEMINI_STREAM_URL, prompt, requestTimeout);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        SseTextSubscriber subscriber = new SseTextSubscriber(onChunk);
+        return httpClient
+                .sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber, SseTextSubscriber::text,
+                        null))
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw new CompletionException(toIOException(error));
+                    }
+                    if (response.statusCode() >= 400) {
+                        throw new CompletionException(new LlmUpstreamException(response.statusCode(),
+                                "Gemini API returned HTTP " + response.statusCode() + ": " + subscriber.errorBody()));
+                    }
+                    String text = response.body();
+                    if (text == null || text.trim().isEmpty()) {
+                        throw new CompletionException(new IOException("Gemini API returned empty text"));
+                    }
+                    return text;
+                });
+    }
+
+    /**
+     * Wait for a future produced by this service and surface failures as
+     * {@link IOException}, matching the contract of the blocking API.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Gemini API call interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw toIOException(cause);
+        }
+    }
+
+    private HttpRequest buildRequest(String url, String prompt, Duration timeout) throws IOException {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url + apiKey))
+                .timeout(timeout)
                 .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .POST(HttpRequest.BodyPublishers.ofString(buildRequestBody(prompt)))
                 .build();
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            String responseBody = response.body();
-            System.out.println("Gemini API raw response: " + (responseBody == null ? "<empty>" : "<omitted>")); // Avoid
-                                                                                                                // printing
-                                                                                                                // sensitive
-                                                                                                                // info
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(responseBody);
-            JsonNode candidates = root.path("candidates");
-            if (!candidates.isArray() || candidates.isEmpty()) {
-                throw new IOException("Gemini API did not return candidates: " + responseBody);
+    }
+
+    private String buildRequestBody(String prompt) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.putArray("contents").addObject().putArray("parts").addObject().put("text", prompt);
+        return mapper.writeValueAsString(body);
+    }
+
+    private String extractText(HttpResponse<String> response) throws IOException {
+        String responseBody = response.body();
+        System.out.println("Gemini API raw response: " + (responseBody == null ? "<empty>" : "<omitted>")); // Avoid
+                                                                                                            // printing
+                                                                                                            // sensitive
+                                                                                                            // info
+        if (response.statusCode() >= 400) {
+            throw new LlmUpstreamException(response.statusCode(),
+                    "Gemini API returned HTTP " + response.statusCode() + ": " + responseBody);
+        }
+        JsonNode root = mapper.readTree(responseBody);
+        JsonNode candidates = root.path("candidates");
+        if (!candidates.isArray() || candidates.isEmpty()) {
+            throw new IOException("Gemini API did not return candidates: " + responseBody);
+        }
+        JsonNode content = candidates.get(0).path("content");
+        JsonNode parts = content.path("parts");
+        if (!parts.isArray() || parts.isEmpty()) {
+            throw new IOException("Gemini API did not return parts: " + responseBody);
+        }
+        String text = parts.get(0).path("text").asText("");
+        if (text == null || text.trim().isEmpty()) {
+            throw new IOException("Gemini API returned empty text: " + responseBody);
+        }
+        return text;
+    }
+
+    private static IOException toIOException(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof TimeoutException) {
+            return new IOException("Gemini API call timed out", cause);
+        }
+        return new IOException("Gemini API call failed: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Collects {@code data:} lines of a server-sent event stream and forwards the
+     * candidate text of each event. Non-event lines are kept for error reporting.
+     */
+    private class SseTextSubscriber implements Flow.Subscriber<String> {
+        private final Consumer<String> onChunk;
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder errorBody = new StringBuilder();
+        private boolean forwarding = true;
+
+        SseTextSubscriber(Consumer<String> onChunk) {
+            this.onChunk = onChunk;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:")) {
+                if (!line.isBlank() && errorBody.length() < 4096) {
+                    errorBody.append(line).append('\n');
+                }
+                return;
             }
-            JsonNode content = candidates.get(0).path("content");
-            JsonNode parts = content.path("parts");
-            if (!parts.isArray() || parts.isEmpty()) {
-                throw new IOException("Gemini API did not return parts: " + responseBody);
+            try {
+                JsonNode parts = mapper.readTree(line.substring(5).trim())
+                        .path("candidates").path(0).path("content").path("parts");
+                for (JsonNode part : parts) {
+                    String fragment = part.path("text").asText("");
+                    if (!fragment.isEmpty()) {
+                        text.append(fragment);
+                        forward(fragment);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Skipping malformed Gemini stream event: " + e.getMessage());
             }
-            String text = parts.get(0).path("text").asText("");
-            if (text == null || text.trim().isEmpty()) {
-                throw new IOException("Gemini API returned empty text: " + responseBody);
+        }
+
+        private void forward(String fragment) {
+            if (!forwarding || onChunk == null) {
+                return;
             }
-            return text;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Gemini API call interrupted", e);
+            try {
+                onChunk.accept(fragment);
+            } catch (RuntimeException e) {
+                // The consumer went away (e.g. client disconnected); keep reading so the
+                // full text is still available to the caller
+                forwarding = false;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        String text() {
+            return text.toString();
         }
+
+        String errorBody() {
+            return errorBody.toString();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 }
@@ -0,0 +1,143 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Re-renders resume LaTeX after an edit by rendering only the template
+ * fragments whose inputs changed.
+ *
+ * Every render is kept for a while under a render id with its resume data,
+ * template model and the output of each top-level template fragment. A
+ * follow-up request sends a JSON Patch against that render's resume data. The
+ * model is rebuilt, which is cheap, and each fragment is compared with the
+ * prior render by the model values it reads ({@link LatexTemplate#getFragmentInputs}).
+ * Unchanged fragments are reused as they are and the rest are rendered and
+ * spliced in, so editing one bullet re-escapes only the experience section.
+ */
+@Service
+public class IncrementalLatexRenderer {
+
+    /** Outcome of a render; {@code renderedFragments} counts fragments rendered rather than reused. */
+    public record Result(String renderId, String templateType, String latexCode, int renderedFragments,
+            int reusedFragments) {
+    }
+
+    private record Render(String templateType, LatexTemplate template, Map<String, Object> resumeData,
+            Map<String, Object> model, String[] fragments) {
+    }
+
+    private final LatexTemplateRegistry templateRegistry;
+    private final Cache<String, Render> renders;
+    private final AtomicLong fragmentsRendered = new AtomicLong();
+    private final AtomicLong fragmentsReused = new AtomicLong();
+
+    public IncrementalLatexRenderer(LatexTemplateRegistry templateRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${latex.incremental.maxRenders:1000}") long maxRenders,
+            @Value("${latex.incremental.idleMinutes:30}") long idleMinutes) {
+        this.templateRegistry = templateRegistry;
+        this.renders = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxRenders))
+                .expireAfterAccess(Duration.ofMinutes(Math.max(1, idleMinutes)))
+                .build();
+        if (meterRegistry != null) {
+            FunctionCounter.builder("latex.incremental.fragments", fragmentsRendered, AtomicLong::get)
+                    .tag("result", "rendered").register(meterRegistry);
+            FunctionCounter.builder("latex.incremental.fragments", fragmentsReused, AtomicLong::get)
+                    .tag("result", "reused").register(meterRegistry);
+        }
+    }
+
+    /** Full render of {@code resumeData}, kept so later edits can be sent as patches. */
+    public Result render(Map<String, Object> resumeData, String templateType) throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> snapshot = (Map<String, Object>) JsonPatch.deepCopy(resumeData);
+        return render(null, snapshot, normalize(templateType));
+    }
+
+    /**
+     * Apply a JSON Patch to the resume data of render {@code renderId} and
+     * render the result, reusing fragments whose inputs are unchanged. A
+     * different {@code templateType} (or none, to keep the prior one) is
+     * allowed but shares no fragments.
+     *
+     * @throws UnknownRenderException   if the render is not kept any more
+     * @throws IllegalArgumentException if the patch does not apply
+     */
+    public Result patch(String renderId, List<?> patch, String templateType) throws IOException {
+        Render prior = renderId == null ? null : renders.getIfPresent(renderId);
+        if (prior == null) {
+            throw new UnknownRenderException(renderId);
+        }
+        String type = templateType == null || templateType.isBlank() ? prior.templateType() : normalize(templateType);
+        return render(prior, JsonPatch.apply(prior.resumeData(), patch), type);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("renders", renders.estimatedSize());
+        stats.put("fragmentsRendered", fragmentsRendered.get());
+        stats.put("fragmentsReused", fragmentsReused.get());
+        return stats;
+    }
+
+    private Result render(Render prior, Map<String, Object> resumeData, String templateType) throws IOException {
+        LatexTemplate template = templateRegistry.get(templateType);
+        Map<String, Object> model = LatexServiceImpl.buildTemplateModel(resumeData);
+        // A reloaded template is a new instance whose fragments may not line up
+        boolean comparable = prior != null && prior.template() == template;
+
+        int count = template.getFragmentCount();
+        String[] fragments = new String[count];
+        StringBuilder document = new StringBuilder(template.getSource().length() + 4096);
+        StringBuilder fragment = new StringBuilder();
+        int rendered = 0;
+        for (int i = 0; i < count; i++) {
+            if (comparable && sameInputs(template, i, prior.model(), model)) {
+                fragments[i] = prior.fragments()[i];
+            } else {
+                fragment.setLength(0);
+                template.renderFragment(i, model, fragment);
+                fragments[i] = fragment.toString();
+                rendered++;
+            }
+            document.append(fragments[i]);
+        }
+        fragmentsRendered.addAndGet(rendered);
+        fragmentsReused.addAndGet(count - rendered);
+
+        String renderId = UUID.randomUUID().toString();
+        renders.put(renderId, new Render(templateType, template, resumeData, model, fragments));
+        return new Result(renderId, templateType, document.toString(), rendered, count - rendered);
+    }
+
+    private static boolean sameInputs(LatexTemplate template, int index, Map<String, Object> before,
+            Map<String, Object> after) {
+        for (String name : template.getFragmentInputs(index)) {
+            if (!Objects.equals(before.get(name), after.get(name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String templateType) {
+        return templateType == null || templateType.isBlank() ? "professional" : templateType.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,214 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * RFC 6902 JSON Patch over parsed JSON ({@code Map} / {@code List} / scalars).
+ *
+ * Supports add, remove, replace, move, copy and test. The document is deep
+ * copied first, so the input is never modified and a failing patch leaves no
+ * partial changes behind.
+ */
+public final class JsonPatch {
+
+    private JsonPatch() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if an operation is malformed, a path
+     *                                  does not exist, or a test fails
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> apply(Map<String, Object> document, List<?> operations) {
+        Object result = deepCopy(document);
+        for (Object item : operations) {
+            if (!(item instanceof Map<?, ?> operation)) {
+                throw new IllegalArgumentException("Patch operations must be JSON objects");
+            }
+            result = applyOne(result, (Map<String, Object>) operation);
+        }
+        if (!(result instanceof Map)) {
+            throw new IllegalArgumentException("Patch must leave a JSON object at the root");
+        }
+        return (Map<String, Object>) result;
+    }
+
+    private static Object applyOne(Object document, Map<String, Object> operation) {
+        String op = String.valueOf(operation.get("op"));
+        List<String> path = parsePointer(requireString(operation, "path"));
+        switch (op) {
+            case "add":
+                return add(document, path, deepCopy(requireValue(operation)));
+            case "remove":
+                remove(document, path);
+                return document;
+            case "replace":
+                if (path.isEmpty()) {
+                    return deepCopy(requireValue(operation));
+                }
+                remove(document, path);
+                return add(document, path, deepCopy(requireValue(operation)));
+            case "move": {
+                List<String> from = parsePointer(requireString(operation, "from"));
+                if (path.size() > from.size() && path.subList(0, from.size()).equals(from)) {
+                    throw new IllegalArgumentException("Cannot move " + pointer(from) + " into itself");
+                }
+                Object value = remove(document, from);
+                return add(document, path, value);
+            }
+            case "copy": {
+                Object value = get(document, parsePointer(requireString(operation, "from")));
+                return add(document, path, deepCopy(value));
+            }
+            case "test":
+                if (!Objects.equals(normalize(get(document, path)), normalize(requireValue(operation)))) {
+                    throw new IllegalArgumentException("Test failed at " + pointer(path));
+                }
+                return document;
+            default:
+                throw new IllegalArgumentException("Unsupported patch op '" + op + "'");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object add(Object document, List<String> path, Object value) {
+        if (path.isEmpty()) {
+            return value;
+        }
+        Object parent = get(document, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof Map<?, ?> map) {
+            ((Map<String, Object>) map).put(last, value);
+        } else if (parent instanceof List<?> list) {
+            int index = last.equals("-") ? list.size() : index(last, list.size() + 1, path);
+            ((List<Object>) list).add(index, value);
+        } else {
+            throw new IllegalArgumentException("No container at " + pointer(path.subList(0, path.size() - 1)));
+        }
+        return document;
+    }
+
+    private static Object remove(Object document, List<String> path) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Cannot remove the root");
+        }
+        Object parent = get(document, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof Map<?, ?> map) {
+            if (!map.containsKey(last)) {
+                throw new IllegalArgumentException("No value at " + pointer(path));
+            }
+            return map.remove(last);
+        }
+        if (parent instanceof List<?> list) {
+            return list.remove(index(last, list.size(), path));
+        }
+        throw new IllegalArgumentException("No value at " + pointer(path));
+    }
+
+    private static Object get(Object document, List<String> path) {
+        Object current = document;
+        for (int i = 0; i < path.size(); i++) {
+            String token = path.get(i);
+            if (current instanceof Map<?, ?> map && map.containsKey(token)) {
+                current = map.get(token);
+            } else if (current instanceof List<?> list) {
+                current = list.get(index(token, list.size(), path.subList(0, i + 1)));
+            } else {
+                throw new IllegalArgumentException("No value at " + pointer(path.subList(0, i + 1)));
+            }
+        }
+        return current;
+    }
+
+    private static int index(String token, int limit, List<String> path) {
+        try {
+            int index = Integer.parseInt(token);
+            if (index >= 0 && index < limit && (token.equals("0") || !token.startsWith("0"))) {
+                return index;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid array index at " + pointer(path));
+    }
+
+    /** RFC 6901: "/a/b~1c" is ["a", "b/c"]; "~0" stands for "~". */
+    private static List<String> parsePointer(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("Invalid JSON pointer '" + pointer + "'");
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String pointer(List<String> tokens) {
+        StringBuilder out = new StringBuilder();
+        for (String token : tokens) {
+            out.append('/').append(token.replace("~", "~0").replace("/", "~1"));
+        }
+        return out.toString();
+    }
+
+    private static String requireString(Map<String, Object> operation, String field) {
+        Object value = operation.get(field);
+        if (!(value instanceof String text)) {
+            throw new IllegalArgumentException("Patch op '" + operation.get("op") + "' needs a '" + field + "'");
+        }
+        return text;
+    }
+
+    private static Object requireValue(Map<String, Object> operation) {
+        if (!operation.containsKey("value")) {
+            throw new IllegalArgumentException("Patch op '" + operation.get("op") + "' needs a 'value'");
+        }
+        return operation.get("value");
+    }
+
+    /** Mutable copy, so patches never touch a document shared with an earlier render. */
+    static Object deepCopy(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(String.valueOf(entry.getKey()), deepCopy(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(deepCopy(item));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    // JSON numbers compare by value whatever type the parser picked (1 == 1.0)
+    private static Object normalize(Object value) {
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString()).stripTrailingZeros();
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> out = new LinkedHashMap<>();
+            map.forEach((k, v) -> out.put(k, normalize(v)));
+            return out;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> out = new ArrayList<>();
+            list.forEach(v -> out.add(normalize(v)));
+            return out;
+        }
+        return value;
+    }
+}
@@ -1,6 +1,7 @@
 package com.Backend.AI_Resume_Builder_Backend.Service;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public interface LatexCompileService {
     /**
@@ -10,6 +11,29 @@ public interface LatexCompileService {
      */
     byte[] compileToPdf(String latexCode) throws IOException, InterruptedException;
 
+    /**
+     * Compile on the bounded compile scheduler. Cached PDFs are returned without queueing.
+     * @param priority previews run before downloads
+     * @param clientId user or session; a newer preview from the same client cancels its queued one (may be null)
+     * @return the PDF file in the cache; fails with CompileOverloadedException when the scheduler sheds the job
+     */
+    CompletableFuture<PdfArtifact> compileToPdfAsync(String latexCode, CompileScheduler.Priority priority, String clientId);
+
+    /**
+     * Fill a template with resume data and produce its PDF. Templates rendered in-process with PDFBox
+     * (configured, or as a fallback when no TeX engine is installed) skip the compiler; all others are
+     * compiled as with compileToPdfAsync.
+     * @param resumeData resume JSON as accepted by LatexService.generateLatexCode
+     */
+    CompletableFuture<PdfArtifact> renderToPdfAsync(java.util.Map<String, Object> resumeData, String templateType,
+            CompileScheduler.Priority priority, String clientId);
+
+    /**
+     * Look up a previously compiled PDF by its {@link PdfArtifact#id()}.
+     * @return the PDF, or null if it is unknown or has been evicted from the cache
+     */
+    PdfArtifact findPdf(String pdfId);
+
     /**
      * Check availability of configured LaTeX compiler(s) and return diagnostic info.
      * @return map containing mode, configured path, candidate commands with availability and version output
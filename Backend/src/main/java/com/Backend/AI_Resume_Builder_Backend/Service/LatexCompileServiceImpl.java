@@ -3,138 +3,614 @@ package com.Backend.AI_Resume_Builder_Backend.Service;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Compiles LaTeX with tectonic or pdflatex. PDFs are cached by the SHA-256 of the
+ * source and the identity of the engine that compiled it, so the live preview
+ * and the download of an unchanged resume are served without starting the
+ * compiler again.
+ *
+ * Compiler output is moved into the cache's disk tier and handed out as a
+ * {@link PdfArtifact}, so PDFs are streamed from the file and never held in
+ * the heap; the OS page cache keeps hot PDFs in memory.
+ *
+ * pdflatex runs use a precompiled format per preamble ({@link LatexFormatCache})
+ * so each request only typesets the document body. Formats for the bundled
+ * templates are built at startup, others on first use, in the background.
+ *
+ * Compiles that miss the cache run on a {@link CompileScheduler}, which bounds
+ * the number of compiler processes and sheds load with a 503 when saturated.
+ * With workspaces enabled, compiles for a known client run in a directory that
+ * persists between its compiles of the same document class and packages
+ * ({@link CompileWorkspaces}).
+ *
+ * Engines are probed in the background by a {@link CompilerRegistry}, which
+ * also ranks them for auto mode by their rolling compile latency and success
+ * rate; health checks read its state instead of starting processes.
+ *
+ * Templates listed in {@code latex.pdfbox.templates}, and with
+ * {@code latex.pdfbox.fallback} any template {@link PdfBoxResumeRenderer}
+ * supports when no TeX engine is installed, are rendered in-process by
+ * {@link #renderToPdfAsync} instead of being compiled.
+ */
 @Service
 public class LatexCompileServiceImpl implements LatexCompileService {
 
-    @Value("${latex.compiler:auto}")
-    private String compilerMode; // auto | tectonic | pdflatex
+    private final String compilerMode; // auto | tectonic | pdflatex
+    private final String compilerPath; // optional absolute path to compiler executable
+    private final int timeoutSeconds;
+    private final int maxLogBytes;
+    private final TieredCache pdfCache;
+    private final boolean cacheEnabled;
+    private final CompileScheduler scheduler;
+    private final CompileWorkspaces workspaces;
+    private final CompilerRegistry compilers;
+    private final LatexService latexService;
+    private final PdfBoxResumeRenderer pdfBoxRenderer;
+    private final Set<String> pdfBoxTemplates;
+    private final boolean pdfBoxFallback;
+    private final MeterRegistry meterRegistry;
+    private final LatexFormatCache formats;
+    private final boolean warmFormats;
+    private final ExecutorService formatBuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "latex-format");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Per template: plain vs precompiled-format compile time measured at warmup
+    private final Map<String, Map<String, Object>> formatReport = new ConcurrentHashMap<>();
+
+    public LatexCompileServiceImpl(
+            @Value("${latex.compiler:auto}") String compilerMode,
+            @Value("${latex.compiler.path:}") String compilerPath,
+            @Value("${latex.compile.timeoutSeconds:40}") int timeoutSeconds,
+            @Value("${latex.compile.maxLogBytes:65536}") int maxLogBytes,
+            MeterRegistry meterRegistry,
+            @Value("${latex.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${latex.cache.ttlMinutes:0}") long ttlMinutes,
+            @Value("${latex.cache.diskDir:}") String diskDir,
+            @Value("${latex.cache.diskMaxBytes:536870912}") long diskMaxBytes,
+            LatexService latexService,
+            @Value("${latex.format.enabled:true}") boolean formatsEnabled,
+            @Value("${latex.format.dir:}") String formatDir,
+            @Value("${latex.format.maxFormats:16}") int maxFormats,
+            @Value("${latex.format.warmup:true}") boolean warmFormats,
+            @Value("${latex.scheduler.workers:0}") int workers,
+            @Value("${latex.scheduler.maxQueue:32}") int maxQueue,
+            @Value("${latex.scheduler.maxQueueWaitSeconds:30}") long maxQueueWaitSeconds,
+            @Value("${latex.workspace.enabled:false}") boolean workspacesEnabled,
+            @Value("${latex.workspace.dir:}") String workspaceDir,
+            @Value("${latex.workspace.tectonicCacheDir:}") String tectonicCacheDir,
+            @Value("${latex.workspace.idleMinutes:30}") long workspaceIdleMinutes,
+            @Value("${latex.workspace.maxBytes:1073741824}") long workspaceMaxBytes,
+            @Value("${latex.workspace.maxBytesPerWorkspace:67108864}") long workspaceMaxBytesEach,
+            PdfBoxResumeRenderer pdfBoxRenderer,
+            @Value("${latex.pdfbox.templates:ats}") String pdfBoxTemplates,
+            @Value("${latex.pdfbox.fallback:true}") boolean pdfBoxFallback,
+            @Value("${latex.compiler.probeIntervalSeconds:300}") long probeIntervalSeconds,
+            @Value("${latex.compiler.exploreIntervalSeconds:600}") long exploreIntervalSeconds) {
+        this.compilerMode = compilerMode;
+        this.compilerPath = compilerPath;
+        this.timeoutSeconds = timeoutSeconds;
+        this.maxLogBytes = maxLogBytes;
+        // Also the store PDFs are served from, so it exists even with lookups disabled
+        this.pdfCache = new TieredCache("latex.cache", 0, Duration.ofMinutes(ttlMinutes),
+                diskDir == null || diskDir.isBlank()
+                        ? Path.of(System.getProperty("java.io.tmpdir"), "ai-resume-pdf-cache")
+                        : Path.of(diskDir.trim()),
+                diskMaxBytes, meterRegistry);
+        this.cacheEnabled = cacheEnabled;
+        this.scheduler = new CompileScheduler(workers, maxQueue, Duration.ofSeconds(maxQueueWaitSeconds), meterRegistry);
+        this.latexService = latexService;
+        this.meterRegistry = meterRegistry;
+        this.warmFormats = warmFormats;
+
+        LatexFormatCache formatCache = null;
+        if (formatsEnabled) {
+            Path dir = formatDir == null || formatDir.isBlank()
+                    ? Path.of(System.getProperty("java.io.tmpdir"), "latex_formats")
+                    : Path.of(formatDir.trim());
+            try {
+                formatCache = new LatexFormatCache(dir, maxFormats);
+            } catch (IOException e) {
+                System.err.println("Precompiled LaTeX formats disabled, cannot use " + dir + ": " + e.getMessage());
+            }
+        }
+        this.formats = formatCache;
+
+        CompileWorkspaces compileWorkspaces = null;
+        if (workspacesEnabled) {
+            Path root = workspaceDir == null || workspaceDir.isBlank()
+                    ? Path.of(System.getProperty("java.io.tmpdir"), "latex_workspaces")
+                    : Path.of(workspaceDir.trim());
+            try {
+                compileWorkspaces = new CompileWorkspaces(root,
+                        tectonicCacheDir == null || tectonicCacheDir.isBlank() ? null : Path.of(tectonicCacheDir.trim()),
+                        Duration.ofMinutes(Math.max(1, workspaceIdleMinutes)), workspaceMaxBytes, workspaceMaxBytesEach,
+                        meterRegistry);
+            } catch (IOException e) {
+                System.err.println("LaTeX compile workspaces disabled, cannot use " + root + ": " + e.getMessage());
+            }
+        }
+        this.workspaces = compileWorkspaces;
+
+        this.pdfBoxRenderer = pdfBoxRenderer;
+        this.pdfBoxTemplates = new HashSet<>();
+        for (String template : (pdfBoxTemplates == null ? "" : pdfBoxTemplates).split(",")) {
+            if (!template.isBlank()) {
+                this.pdfBoxTemplates.add(template.trim().toLowerCase());
+            }
+        }
+        this.pdfBoxFallback = pdfBoxFallback;
+
+        Map<String, String> executables = new LinkedHashMap<>();
+        for (String engine : engines()) {
+            executables.put(engine, executable(engine));
+        }
+        this.compilers = new CompilerRegistry(mode(), executables, Duration.ofSeconds(probeIntervalSeconds),
+                Duration.ofSeconds(exploreIntervalSeconds), meterRegistry);
+    }
 
-    @Value("${latex.compiler.path:}")
-    private String compilerPath; // optional absolute path to compiler executable
+    /** Build formats for the bundled templates and measure what they save. */
+    @PostConstruct
+    public void warmFormats() {
+        if (formats != null && warmFormats && engines().contains("pdflatex")) {
+            formatBuilder.execute(this::warmTemplates);
+        }
+    }
 
-    @Value("${latex.compile.timeoutSeconds:40}")
-    private int timeoutSeconds;
+    @PreDestroy
+    public void shutdown() {
+        formatBuilder.shutdownNow();
+        scheduler.shutdown();
+        compilers.shutdown();
+        if (workspaces != null) {
+            workspaces.shutdown();
+        }
+    }
 
     @Override
     public byte[] compileToPdf(String latexCode) throws IOException, InterruptedException {
+        try {
+            return Files.readAllBytes(compileToPdfAsync(latexCode, CompileScheduler.Priority.DOWNLOAD, null).get().file());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof InterruptedException interrupted) {
+                throw interrupted;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("LaTeX compilation failed", cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<PdfArtifact> compileToPdfAsync(String latexCode, CompileScheduler.Priority priority,
+            String clientId) {
+        if (cacheEnabled) {
+            // Any engine's PDF of this source will do
+            for (String engine : compilers.ranking()) {
+                PdfArtifact cached = findPdf(pdfKey(engine, latexCode));
+                if (cached != null) {
+                    return CompletableFuture.completedFuture(cached);
+                }
+            }
+        }
+        return scheduler.submit(() -> compile(latexCode, clientId), priority, clientId);
+    }
+
+    @Override
+    public CompletableFuture<PdfArtifact> renderToPdfAsync(Map<String, Object> resumeData, String templateType,
+            CompileScheduler.Priority priority, String clientId) {
+        String template = templateType == null || templateType.isBlank() ? "professional"
+                : templateType.trim().toLowerCase();
+        String latexCode;
+        try {
+            latexCode = latexService.generateLatexCode(resumeData, template);
+            if (pdfBoxRenderer != null && pdfBoxRenderer.supports(template)
+                    && (pdfBoxTemplates.contains(template) || (pdfBoxFallback && !compilers.anyAvailable()))) {
+                return CompletableFuture.completedFuture(renderWithPdfBox(resumeData, template, latexCode));
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return compileToPdfAsync(latexCode, priority, clientId);
+    }
+
+    /**
+     * Render in the calling thread; it takes milliseconds, so it bypasses the
+     * compile scheduler. Keyed by the generated LaTeX, which holds every value
+     * the layout uses.
+     */
+    private PdfArtifact renderWithPdfBox(Map<String, Object> resumeData, String template, String latexCode)
+            throws IOException {
+        String key = ContentHash.sha256Hex(PdfBoxResumeRenderer.VERSION, template, latexCode);
+        if (cacheEnabled) {
+            PdfArtifact cached = findPdf(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long start = System.nanoTime();
+        String outcome = "failure";
+        Path file = Files.createTempFile("resume_render_", ".pdf");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                pdfBoxRenderer.render(resumeData, out);
+            }
+            PdfArtifact pdf = store(key, file);
+            outcome = "success";
+            return pdf;
+        } finally {
+            Files.deleteIfExists(file);
+            if (meterRegistry != null) {
+                Timer.builder("latex.render.duration")
+                        .tag("renderer", "pdfbox")
+                        .tag("template", template)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Override
+    public PdfArtifact findPdf(String pdfId) {
+        if (pdfId == null || !pdfId.matches("[0-9a-f]{64}")) {
+            return null;
+        }
+        Path file = pdfCache.getFile(pdfId);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new PdfArtifact(pdfId, file, Files.size(file), Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            // Evicted between lookup and stat
+            return null;
+        }
+    }
+
+    /** A PDF written by {@code engine}. */
+    private record Compiled(String engine, Path pdf) {
+    }
+
+    /** Compile and move the PDF into the cache under the key of the engine that produced it. */
+    private PdfArtifact compile(String latexCode, String clientId) throws IOException, InterruptedException {
+        if (workspaces != null && clientId != null) {
+            return workspaces.run(clientId, staticPreambleOf(latexCode),
+                    dir -> store(latexCode, compileIn(dir, latexCode, true)));
+        }
         Path tempDir = Files.createTempDirectory("latex_compile_");
-        Path texFile = tempDir.resolve("resume.tex");
-        Path pdfFile = tempDir.resolve("resume.pdf");
+        try {
+            return store(latexCode, compileIn(tempDir, latexCode, false));
+        } finally {
+            cleanup(tempDir);
+        }
+    }
 
-        // Write LaTeX file
-        Files.write(texFile, latexCode.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    // One workspace per document class and package set, so a client switching templates does not
+    // mix aux files, while edits to contact fields further down the preamble keep the warm workspace
+    private static String staticPreambleOf(String latexCode) {
+        int end = LatexFormatCache.preambleEnd(latexCode);
+        return end < 0 ? "" : latexCode.substring(0, end);
+    }
+
+    private PdfArtifact store(String latexCode, Compiled compiled) throws IOException {
+        return store(pdfKey(compiled.engine(), latexCode), compiled.pdf());
+    }
 
-        // Determine candidate compilers
-        String mode = (compilerMode == null || compilerMode.isBlank()) ? "auto" : compilerMode.trim().toLowerCase();
-        List<List<String>> candidates = new ArrayList<>();
+    /** Only the engine that compiles a PDF is part of its key, not the mode or other engines. */
+    private String pdfKey(String engine, String latexCode) {
+        return ContentHash.sha256Hex(engine, compilers.identity(engine), latexCode);
+    }
 
-        if ("pdflatex".equals(mode)) {
-            candidates.add(buildPdflatexCommand(tempDir, texFile));
-        } else if ("tectonic".equals(mode)) {
-            candidates.add(buildTectonicCommand(tempDir, texFile));
-        } else { // auto
-            candidates.add(buildTectonicCommand(tempDir, texFile));
-            candidates.add(buildPdflatexCommand(tempDir, texFile));
+    private PdfArtifact store(String key, Path pdfFile) throws IOException {
+        Path stored = pdfCache.putFile(key, pdfFile);
+        if (stored == null) {
+            throw new IOException("PDF cache directory is unavailable");
         }
+        return new PdfArtifact(key, stored, Files.size(stored), Files.getLastModifiedTime(stored).toMillis());
+    }
+
+    /**
+     * @param persistent the directory is a workspace reused by the next compile,
+     *                   so tectonic keeps its intermediate files there too
+     * @return the PDF written by the compiler in {@code workDir}
+     */
+    private Compiled compileIn(Path workDir, String latexCode, boolean persistent) throws IOException, InterruptedException {
+        Path texFile = workDir.resolve("resume.tex");
+        Path pdfFile = workDir.resolve("resume.pdf");
+
+        // Write LaTeX file
+        Files.write(texFile, latexCode.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
 
         IOException lastError = null;
-        for (List<String> cmd : candidates) {
+        for (String engine : compilers.plan()) {
             try {
-                byte[] pdf = runCompiler(cmd, tempDir, pdfFile);
-                cleanup(tempDir);
-                return pdf;
+                return new Compiled(engine, "pdflatex".equals(engine)
+                        ? runPdflatex(latexCode, workDir, texFile, pdfFile)
+                        : runTimed(engine, "none", null, buildTectonicCommand(workDir, texFile, persistent), workDir,
+                                pdfFile));
             } catch (IOException ex) {
                 lastError = ex;
                 // try next candidate
             }
         }
 
-        cleanup(tempDir);
         if (lastError != null) throw lastError;
         throw new IOException("LaTeX compilation failed with all available compilers");
     }
 
+    /** Served from memory: engine availability comes from the last background probe. */
     @Override
     public java.util.Map<String, Object> getCompilerStatus() {
         java.util.Map<String, Object> out = new java.util.HashMap<>();
-        String mode = (compilerMode == null || compilerMode.isBlank()) ? "auto" : compilerMode.trim().toLowerCase();
-        out.put("mode", mode);
+        out.put("mode", mode());
         out.put("configuredPath", compilerPath == null ? "" : compilerPath);
+        out.put("ready", compilers.anyAvailable());
+        out.put("candidates", compilers.stats());
+        out.put("plan", compilers.ranking());
+        out.put("scheduler", scheduler.stats());
+        out.put("workspaces", workspaces == null ? java.util.Map.of("enabled", false) : workspaces.stats());
+        java.util.Map<String, Object> cacheStatus = new java.util.LinkedHashMap<>(pdfCache.stats());
+        cacheStatus.put("enabled", cacheEnabled);
+        out.put("cache", cacheStatus);
+        out.put("pdfbox", java.util.Map.of("templates", new java.util.TreeSet<>(pdfBoxTemplates),
+                "fallback", pdfBoxFallback));
+        if (formats != null) {
+            java.util.Map<String, Object> formatStatus = new java.util.LinkedHashMap<>(formats.stats());
+            formatStatus.put("warmup", new java.util.TreeMap<>(formatReport));
+            out.put("formats", formatStatus);
+        } else {
+            out.put("formats", java.util.Map.of("enabled", false));
+        }
+        return out;
+    }
+
+    private String mode() {
+        return (compilerMode == null || compilerMode.isBlank()) ? "auto" : compilerMode.trim().toLowerCase();
+    }
+
+    /** Configured engines; auto lists tectonic first, then pdflatex, and {@link CompilerRegistry} reorders them. */
+    private List<String> engines() {
+        String mode = mode();
+        if ("pdflatex".equals(mode) || "tectonic".equals(mode)) {
+            return List.of(mode);
+        }
+        return List.of("tectonic", "pdflatex");
+    }
+
+    /**
+     * Run pdflatex with the precompiled format for this preamble when it is
+     * ready; otherwise schedule the format build and compile normally. If the
+     * format run fails but a plain run succeeds, the format is at fault and is
+     * dropped; if both fail, the document is.
+     */
+    private Path runPdflatex(String latexCode, Path workDir, Path texFile, Path pdfFile)
+            throws IOException, InterruptedException {
+        int preambleEnd = formats == null ? -1 : LatexFormatCache.preambleEnd(latexCode);
+        String key = null;
+        if (preambleEnd > 0) {
+            String preamble = latexCode.substring(0, preambleEnd);
+            key = LatexFormatCache.key(compilers.identity("pdflatex"), preamble);
+            Path format = formats.ready(key);
+            if (format != null) {
+                try {
+                    return runWithFormat(latexCode, preambleEnd, key, format, workDir);
+                } catch (IOException formatError) {
+                    Path pdf = runTimed("pdflatex", "none", key, buildPdflatexCommand(workDir, texFile), workDir,
+                            pdfFile);
+                    System.err.println("Dropping LaTeX format " + key + " (" + formats.labelOf(key)
+                            + "): documents compile without it but not with it");
+                    formats.failed(key);
+                    return pdf;
+                }
+            }
+            scheduleFormatBuild(key, preamble);
+        }
+        return runTimed("pdflatex", "none", key, buildPdflatexCommand(workDir, texFile), workDir, pdfFile);
+    }
+
+    private Path runWithFormat(String latexCode, int preambleEnd, String key, Path format, Path workDir)
+            throws IOException, InterruptedException {
+        Path texFile = workDir.resolve("resume_fmt.tex");
+        Files.writeString(texFile, LatexFormatCache.withEndOfDump(latexCode, preambleEnd));
+        // pdflatex looks for -fmt in the working directory first
+        Path local = workDir.resolve(format.getFileName());
+        if (Files.notExists(local)) {
+            try {
+                Files.createLink(local, format);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(format, local, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        List<String> cmd = buildPdflatexCommand(workDir, texFile);
+        cmd.add(1, "-fmt=" + key);
+        return runTimed("pdflatex", "precompiled", key, cmd, workDir, workDir.resolve("resume_fmt.pdf"));
+    }
+
+    private void scheduleFormatBuild(String key, String preamble) {
+        if (!formats.tryStartBuild(key)) {
+            return;
+        }
+        formatBuilder.execute(() -> {
+            try {
+                buildFormat(key, preamble);
+            } catch (IOException e) {
+                System.err.println("Failed to build LaTeX format " + key + ": " + e.getMessage());
+                formats.failed(key);
+            } catch (InterruptedException e) {
+                formats.failed(key);
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
 
-        java.util.List<java.util.Map<String, Object>> details = new java.util.ArrayList<>();
-        java.util.List<java.util.List<String>> candidates = new java.util.ArrayList<>();
-        Path dummyDir;
+    /**
+     * Dump everything up to {@code \endofdump} into {@code <key>.fmt} with
+     * mylatexformat. Returns the build time in milliseconds.
+     */
+    private long buildFormat(String key, String preamble) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Path buildDir = formats.newBuildDir();
         try {
-            dummyDir = Files.createTempDirectory("latex_check_");
-        } catch (IOException e) {
-            dummyDir = Path.of(System.getProperty("java.io.tmpdir", "."));
-        }
-        Path dummyTex = dummyDir.resolve("check.tex");
-        try { Files.writeString(dummyTex, "\\documentclass{article}\\begin{document}OK\\end{document}"); } catch (Exception ignored) {}
-
-        if ("pdflatex".equals(mode)) {
-            candidates.add(buildPdflatexCommand(dummyDir, dummyTex));
-        } else if ("tectonic".equals(mode)) {
-            candidates.add(buildTectonicCommand(dummyDir, dummyTex));
-        } else { // auto
-            candidates.add(buildTectonicCommand(dummyDir, dummyTex));
-            candidates.add(buildPdflatexCommand(dummyDir, dummyTex));
-        }
-
-        boolean any = false;
-        for (java.util.List<String> cmd : candidates) {
-            java.util.Map<String, Object> d = new java.util.HashMap<>();
-            d.put("command", String.join(" ", cmd));
-            String exe = cmd.isEmpty() ? "" : cmd.get(0);
-            // Try `--version` for detection; tectonic/pdflatex both support it
-            java.util.List<String> probe = new java.util.ArrayList<>();
-            probe.add(exe);
-            probe.add("--version");
+            Path source = buildDir.resolve(key + ".tex");
+            Files.writeString(source, preamble + "\\endofdump\n\\begin{document}\n\\end{document}\n");
+            List<String> cmd = List.of(executable("pdflatex"), "-ini", "-interaction=nonstopmode", "-halt-on-error",
+                    "-jobname=" + key, "&pdflatex", "mylatexformat.ltx", source.getFileName().toString());
+            Path formatFile = buildDir.resolve(key + ".fmt");
+            runProcess("pdflatex-ini", cmd, buildDir, formatFile);
+            formats.built(key, formatFile);
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            cleanup(buildDir);
+        }
+    }
+
+    private void warmTemplates() {
+        for (String template : latexService.getAvailableTemplates().keySet()) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            formatReport.put(template, report);
             try {
-                Process p = new ProcessBuilder(probe).redirectErrorStream(true).start();
-                java.io.ByteArrayOutputStream outBuf = new java.io.ByteArrayOutputStream();
-                try (InputStream is = p.getInputStream()) { is.transferTo(outBuf); }
-                boolean finished = p.waitFor(5, java.util.concurrent.TimeUnit.SECONDS);
-                if (!finished) { p.destroyForcibly(); throw new IOException("timeout"); }
-                int code = p.exitValue();
-                String ver = outBuf.toString(java.nio.charset.StandardCharsets.UTF_8);
-                boolean ok = code == 0 && (ver.toLowerCase().contains("tectonic") || ver.toLowerCase().contains("pdftex") || ver.toLowerCase().contains("miktex"));
-                d.put("available", ok);
-                d.put("version", ver.trim());
-                any = any || ok;
-            } catch (Exception e) {
-                d.put("available", false);
-                d.put("error", e.getMessage());
-            }
-            details.add(d);
-        }
-
-        out.put("ready", any);
-        out.put("candidates", details);
-
-        // cleanup
-        try { Files.deleteIfExists(dummyTex); Files.deleteIfExists(dummyDir); } catch (Exception ignored) {}
-        return out;
+                String latex = latexService.generateLatexCode(Map.of(), template);
+                int preambleEnd = LatexFormatCache.preambleEnd(latex);
+                if (preambleEnd < 0) {
+                    report.put("error", "No dumpable preamble");
+                    continue;
+                }
+                String preamble = latex.substring(0, preambleEnd);
+                String key = LatexFormatCache.key(compilers.identity("pdflatex"), preamble);
+                formats.label(key, template);
+
+                long plainMillis = timedCompile(latex, key, null);
+                report.put("plainMillis", plainMillis);
+                if (formats.ready(key) == null && formats.tryStartBuild(key)) {
+                    try {
+                        report.put("buildMillis", buildFormat(key, preamble));
+                    } catch (IOException e) {
+                        formats.failed(key);
+                        throw e;
+                    }
+                }
+                Path format = formats.ready(key);
+                if (format == null) {
+                    report.put("error", "Format could not be built");
+                    continue;
+                }
+                long formatMillis = timedCompile(latex, key, format);
+                report.put("formatMillis", formatMillis);
+                report.put("speedup", Math.round(100.0 * plainMillis / Math.max(1, formatMillis)) / 100.0);
+                System.out.println("LaTeX format for '" + template + "': " + plainMillis + " ms -> " + formatMillis
+                        + " ms per compile");
+            } catch (IOException e) {
+                report.put("error", e.getMessage());
+                System.err.println("LaTeX format warmup failed for '" + template + "': " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Compile once in a scratch directory and return the wall time in milliseconds. */
+    private long timedCompile(String latexCode, String key, Path format) throws IOException, InterruptedException {
+        Path workDir = Files.createTempDirectory("latex_warmup_");
+        try {
+            long start = System.nanoTime();
+            if (format == null) {
+                Path texFile = workDir.resolve("resume.tex");
+                Files.writeString(texFile, latexCode);
+                runTimed("pdflatex", "none", key, buildPdflatexCommand(workDir, texFile), workDir,
+                        workDir.resolve("resume.pdf"));
+            } else {
+                runWithFormat(latexCode, LatexFormatCache.preambleEnd(latexCode), key, format, workDir);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            cleanup(workDir);
+        }
     }
 
-    private byte[] runCompiler(List<String> cmd, Path workDir, Path pdfFile) throws IOException, InterruptedException {
+    /** {@link #runCompiler} recorded as {@code latex.compile.duration}. */
+    private Path runTimed(String engine, String format, String formatKey, List<String> cmd, Path workDir,
+            Path pdfFile) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            Path pdf = runCompiler(engine, cmd, workDir, pdfFile);
+            outcome = "success";
+            return pdf;
+        } finally {
+            compilers.record(engine, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    "success".equals(outcome));
+            if (meterRegistry != null) {
+                Timer.builder("latex.compile.duration")
+                        .tag("engine", engine)
+                        .tag("format", format)
+                        .tag("template", formats == null ? "custom" : formats.labelOf(formatKey))
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Path runCompiler(String engine, List<String> cmd, Path workDir, Path pdfFile)
+            throws IOException, InterruptedException {
+        runProcess(engine, cmd, workDir, pdfFile);
+        return pdfFile;
+    }
+
+    /**
+     * Run a compiler under {@link CompilerProcess}: output capped at
+     * {@code latex.compile.maxLogBytes}, process tree killed after
+     * {@code latex.compile.timeoutSeconds}. CPU time and peak memory are
+     * recorded as {@code latex.compile.cpu} and {@code latex.compile.memory}.
+     */
+    private void runProcess(String engine, List<String> cmd, Path workDir, Path outputFile)
+            throws IOException, InterruptedException {
         ProcessBuilder pb = new ProcessBuilder(cmd);
         pb.directory(workDir.toFile());
-        pb.redirectErrorStream(true);
         // Set environment to speed up MiKTeX package checks
         pb.environment().put("MIKTEX_AUTOINSTALL", "yes");
         pb.environment().put("MIKTEX_TRACE", "error");
+        if (workspaces != null) {
+            pb.environment().put("TECTONIC_CACHE_DIR", workspaces.getTectonicCacheDir().toString());
+        }
+        // A workspace still holds the output of the previous compile
+        Files.deleteIfExists(outputFile);
 
-        Process process;
+        CompilerProcess.Result result;
         try {
-            process = pb.start();
+            result = CompilerProcess.run(pb, Duration.ofSeconds(timeoutSeconds), maxLogBytes);
         } catch (IOException e) {
             // Likely the binary is not found on PATH or the configured path is invalid.
             String exe = cmd.isEmpty() ? "<unknown>" : cmd.get(0);
@@ -160,29 +636,41 @@ public class LatexCompileServiceImpl implements LatexCompileService {
             hint.append("Configured path: '").append(compilerPath == null ? "" : compilerPath).append("'\n");
             throw new IOException(hint.toString(), e);
         }
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        try (InputStream is = process.getInputStream()) {
-            is.transferTo(output);
-        }
+        recordUsage(engine, result);
 
-        boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
-        if (!finished) {
-            process.destroyForcibly();
-            throw new IOException("LaTeX compilation timed out after " + timeoutSeconds + "s");
+        if (result.timedOut()) {
+            throw new IOException("LaTeX compilation timed out after " + timeoutSeconds
+                    + "s; the compiler was killed. Last output:\n" + result.output());
         }
-
-        int exit = process.exitValue();
-        if (Files.notExists(pdfFile) || exit != 0) {
-            String log = output.toString(StandardCharsets.UTF_8);
-            throw new IOException("Compiler: " + String.join(" ", cmd) + " failed (exit=" + exit + "):\n" + log);
+        int exit = result.exitCode();
+        if (Files.notExists(outputFile) || exit != 0) {
+            throw new IOException("Compiler: " + String.join(" ", cmd) + " failed (exit=" + exit + "):\n"
+                    + result.output());
         }
+    }
 
-        return Files.readAllBytes(pdfFile);
+    private void recordUsage(String engine, CompilerProcess.Result result) {
+        if (meterRegistry == null) {
+            return;
+        }
+        if (result.cpuMillis() >= 0) {
+            Timer.builder("latex.compile.cpu").tag("engine", engine)
+                    .description("CPU time of the compiler process tree at its last sample (a lower bound)")
+                    .register(meterRegistry)
+                    .record(result.cpuMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (result.peakRssBytes() >= 0) {
+            DistributionSummary.builder("latex.compile.memory").tag("engine", engine).baseUnit("bytes")
+                    .register(meterRegistry).record(result.peakRssBytes());
+        }
+        if (result.timedOut()) {
+            Counter.builder("latex.compile.timeouts").tag("engine", engine).register(meterRegistry).increment();
+        }
     }
 
     private List<String> buildPdflatexCommand(Path tempDir, Path texFile) {
         List<String> cmd = new ArrayList<>();
-        String exe = compilerPath != null && !compilerPath.isBlank() ? compilerPath : "pdflatex";
+        String exe = executable("pdflatex");
         cmd.add(exe);
         cmd.add("-interaction=nonstopmode");
         cmd.add("-halt-on-error");
@@ -192,16 +680,23 @@ public class LatexCompileServiceImpl implements LatexCompileService {
         return cmd;
     }
 
-    private List<String> buildTectonicCommand(Path tempDir, Path texFile) {
+    private List<String> buildTectonicCommand(Path tempDir, Path texFile, boolean keepIntermediates) {
         List<String> cmd = new ArrayList<>();
-        String exe = compilerPath != null && !compilerPath.isBlank() ? compilerPath : "tectonic";
+        String exe = executable("tectonic");
         cmd.add(exe);
+        if (keepIntermediates) {
+            cmd.add("--keep-intermediates");
+        }
         cmd.add("-o");
         cmd.add(tempDir.toString());
         cmd.add(texFile.toString());
         return cmd;
     }
 
+    private String executable(String defaultName) {
+        return compilerPath != null && !compilerPath.isBlank() ? compilerPath : defaultName;
+    }
+
     private void cleanup(Path tempDir) {
         try {
             if (tempDir != null && Files.exists(tempDir)) {
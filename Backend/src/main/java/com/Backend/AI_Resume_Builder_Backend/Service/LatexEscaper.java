@@ -0,0 +1,81 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+/**
+ * Escaping of LaTeX special characters in user-provided text.
+ *
+ * Single pass over the input: {@link #escape(String)} returns the input itself
+ * when it contains nothing to escape, and {@link #appendEscaped} writes straight
+ * into the caller's buffer, so rendering a template allocates nothing per field.
+ */
+public final class LatexEscaper {
+
+    private LatexEscaper() {
+    }
+
+    public static String escape(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        int first = firstSpecial(text);
+        if (first < 0) {
+            return text;
+        }
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        out.append(text, 0, first);
+        escapeFrom(text, first, out);
+        return out.toString();
+    }
+
+    /**
+     * Append the escaped form of {@code text} to {@code out}; null appends nothing.
+     */
+    public static void appendEscaped(StringBuilder out, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        int first = firstSpecial(text);
+        if (first < 0) {
+            out.append(text);
+            return;
+        }
+        out.append(text, 0, first);
+        escapeFrom(text, first, out);
+    }
+
+    private static int firstSpecial(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (replacement(text.charAt(i)) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void escapeFrom(String text, int start, StringBuilder out) {
+        int run = start;
+        for (int i = start; i < text.length(); i++) {
+            String replacement = replacement(text.charAt(i));
+            if (replacement != null) {
+                out.append(text, run, i).append(replacement);
+                run = i + 1;
+            }
+        }
+        out.append(text, run, text.length());
+    }
+
+    private static String replacement(char c) {
+        return switch (c) {
+            case '\\' -> "\\textbackslash{}";
+            case '&' -> "\\&";
+            case '%' -> "\\%";
+            case '$' -> "\\$";
+            case '#' -> "\\#";
+            case '_' -> "\\_";
+            case '{' -> "\\{";
+            case '}' -> "\\}";
+            case '~' -> "\\textasciitilde{}";
+            case '^' -> "\\textasciicircum{}";
+            default -> null;
+        };
+    }
+}
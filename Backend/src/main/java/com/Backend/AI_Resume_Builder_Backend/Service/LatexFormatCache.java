@@ -0,0 +1,284 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Directory of precompiled pdflatex format files, one per document preamble.
+ *
+ * The dumpable part of a preamble is everything up to its last document class
+ * or package line: loading the class and packages is most of a pdflatex run
+ * and, for the bundled templates, never depends on the resume. Formats are
+ * dumped mylatexformat-style and named after a hash of the compiler identity
+ * and that preamble, so they survive restarts but are never reused across TeX
+ * installations.
+ *
+ * At most {@code maxFormats} formats are kept, least recently used first out;
+ * evicted files are deleted. Preambles labelled at warmup (the bundled
+ * templates) may always be built. Any other preamble is built only once it has
+ * been seen twice, so a preamble being edited in the live editor does not start
+ * a format build per keystroke. Preambles whose build failed are remembered
+ * separately and do not take a slot.
+ */
+public class LatexFormatCache {
+
+    private static final String END_OF_DUMP = "\\endofdump";
+    // Preambles seen once, and preambles that failed; bounded so they cannot grow without limit
+    private static final int MAX_TRACKED = 256;
+
+    private enum State { BUILDING, READY }
+
+    private static final class Entry {
+        State state;
+        long lastUsed;
+
+        Entry(State state, long lastUsed) {
+            this.state = state;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final Path dir;
+    private final int maxFormats;
+    // Guarded by this
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Boolean> seenOnce = lru();
+    private final Map<String, Boolean> failedKeys = lru();
+    private long evictions;
+    // Template name for preambles registered at warmup, used as a metric tag
+    private final Map<String, String> labels = new ConcurrentHashMap<>();
+
+    public LatexFormatCache(Path dir, int maxFormats) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.maxFormats = Math.max(1, maxFormats);
+        // Keep the most recently used formats of earlier runs, up to the limit
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(dir)) {
+            existing = files.filter(file -> file.getFileName().toString().endsWith(".fmt"))
+                    .sorted(Comparator.comparingLong(LatexFormatCache::modifiedMillis).reversed())
+                    .toList();
+        }
+        for (Path file : existing) {
+            String fileName = file.getFileName().toString();
+            String key = fileName.substring(0, fileName.length() - 4);
+            if (entries.size() < this.maxFormats) {
+                entries.put(key, new Entry(State.READY, modifiedMillis(file)));
+            } else {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    /**
+     * @return the length of the dumpable preamble prefix, or -1 when the source
+     *         has none or already manages its own format
+     */
+    public static int preambleEnd(String source) {
+        int begin = source.indexOf("\\begin{document}");
+        if (begin < 0 || source.startsWith("%&") || source.contains(END_OF_DUMP)) {
+            return -1;
+        }
+        int end = -1;
+        boolean hasClass = false;
+        int lineStart = 0;
+        while (lineStart < begin) {
+            int lineEnd = source.indexOf('\n', lineStart);
+            if (lineEnd < 0 || lineEnd > begin) {
+                break;
+            }
+            String line = source.substring(lineStart, lineEnd).trim();
+            if (line.startsWith("\\documentclass")) {
+                hasClass = true;
+                end = lineEnd + 1;
+            } else if (hasClass && (line.startsWith("\\usepackage") || line.startsWith("\\RequirePackage"))) {
+                end = lineEnd + 1;
+            }
+            lineStart = lineEnd + 1;
+        }
+        // A package option list spanning lines would be cut in half
+        return end > 0 && isBalanced(source, end) ? end : -1;
+    }
+
+    /** Insert the dump marker so the format can skip the preamble it already contains. */
+    public static String withEndOfDump(String source, int preambleEnd) {
+        return source.substring(0, preambleEnd) + END_OF_DUMP + "\n" + source.substring(preambleEnd);
+    }
+
+    public static String key(String compilerIdentity, String preamble) {
+        return "fmt-" + ContentHash.sha256Hex(compilerIdentity, preamble).substring(0, 24);
+    }
+
+    /** @return the format file for {@code key}, or {@code null} if it is not built */
+    public Path ready(String key) {
+        Path file = dir.resolve(key + ".fmt");
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.state != State.READY) {
+                return null;
+            }
+            if (Files.notExists(file)) {
+                entries.remove(key);
+                return null;
+            }
+            entry.lastUsed = System.currentTimeMillis();
+        }
+        try {
+            // Restart keeps the most recently used formats
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+        }
+        return file;
+    }
+
+    /**
+     * Claim the build of {@code key}. Returns false if it is built, building or
+     * known to fail, if it is not a warmup preamble and has not been seen
+     * before, or if every slot is taken by a build in progress. Otherwise the
+     * least recently used format is evicted when the cache is full.
+     */
+    public synchronized boolean tryStartBuild(String key) {
+        if (entries.containsKey(key) || failedKeys.containsKey(key)) {
+            return false;
+        }
+        if (!labels.containsKey(key) && seenOnce.put(key, Boolean.TRUE) == null) {
+            return false;
+        }
+        if (entries.size() >= maxFormats && !evictLeastRecentlyUsed()) {
+            return false;
+        }
+        seenOnce.remove(key);
+        entries.put(key, new Entry(State.BUILDING, System.currentTimeMillis()));
+        return true;
+    }
+
+    /** Scratch directory on the same file system, so {@link #built} can move atomically. */
+    public Path newBuildDir() throws IOException {
+        return Files.createTempDirectory(dir, "build_");
+    }
+
+    public void built(String key, Path formatFile) throws IOException {
+        try {
+            Files.move(formatFile, dir.resolve(key + ".fmt"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            failed(key);
+            throw e;
+        }
+        synchronized (this) {
+            entries.put(key, new Entry(State.READY, System.currentTimeMillis()));
+        }
+    }
+
+    /** Mark {@code key} unusable so requests stop trying it; the file is removed. */
+    public void failed(String key) {
+        synchronized (this) {
+            entries.remove(key);
+            failedKeys.put(key, Boolean.TRUE);
+        }
+        deleteQuietly(dir.resolve(key + ".fmt"));
+    }
+
+    public void label(String key, String templateName) {
+        labels.put(key, templateName);
+    }
+
+    public String labelOf(String key) {
+        return key == null ? "custom" : labels.getOrDefault(key, "custom");
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dir", dir.toString());
+        stats.put("maxFormats", maxFormats);
+        Map<String, String> formats = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> formats.put(labels.getOrDefault(key, key), entry.state.name().toLowerCase()));
+        failedKeys.keySet().forEach(key -> formats.put(labels.getOrDefault(key, key), "failed"));
+        stats.put("formats", formats);
+        stats.put("evictions", evictions);
+        return stats;
+    }
+
+    // Unlabelled formats go first; a build in progress is never evicted
+    private boolean evictLeastRecentlyUsed() {
+        String victim = null;
+        Entry oldest = null;
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            Entry entry = candidate.getValue();
+            if (entry.state != State.READY) {
+                continue;
+            }
+            if (oldest == null || isBetterVictim(candidate.getKey(), entry, victim, oldest)) {
+                victim = candidate.getKey();
+                oldest = entry;
+            }
+        }
+        if (victim == null) {
+            return false;
+        }
+        entries.remove(victim);
+        evictions++;
+        deleteQuietly(dir.resolve(victim + ".fmt"));
+        return true;
+    }
+
+    private boolean isBetterVictim(String key, Entry entry, String victim, Entry current) {
+        boolean labelled = labels.containsKey(key);
+        boolean victimLabelled = labels.containsKey(victim);
+        if (labelled != victimLabelled) {
+            return !labelled;
+        }
+        return entry.lastUsed < current.lastUsed;
+    }
+
+    private static <K> Map<K, Boolean> lru() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+                return size() > MAX_TRACKED;
+            }
+        };
+    }
+
+    private static long modifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static boolean isBalanced(String source, int end) {
+        int depth = 0;
+        for (int i = 0; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '%') {
+                int newline = source.indexOf('\n', i);
+                i = newline < 0 ? end : newline;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+        return depth == 0;
+    }
+}
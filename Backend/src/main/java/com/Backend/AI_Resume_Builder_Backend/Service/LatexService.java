@@ -22,6 +22,14 @@ public interface LatexService {
      */
     Map<String, String> getAvailableTemplates();
 
+    /**
+     * Get metadata of each template: description, document class, packages,
+     * sections and placeholders used, and a relative compile cost estimate
+     * 
+     * @return Map of template names to metadata
+     */
+    Map<String, Map<String, Object>> getTemplateMetadata();
+
     /**
      * Escape special LaTeX characters in text
      * 
@@ -1,16 +1,20 @@
 package com.Backend.AI_Resume_Builder_Backend.Service;
 
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 @Service
 public class LatexServiceImpl implements LatexService {
 
+    private final LatexTemplateRegistry templateRegistry;
+
+    public LatexServiceImpl(LatexTemplateRegistry templateRegistry) {
+        this.templateRegistry = templateRegistry;
+    }
+
     @Override
     public String generateLatexCode(Map<String, Object> resumeData, String templateType) throws IOException {
         // Default to professional if template not specified
@@ -18,362 +22,111 @@ public class LatexServiceImpl implements LatexService {
             templateType = "professional";
         }
 
-        // Load template
-        String template = loadLatexTemplate(templateType);
+        // Parsed once at startup by the registry
+        LatexTemplate template = templateRegistry.get(templateType);
 
-        // Populate template with data
-        String latexCode = populateTemplate(template, resumeData);
+        // Populate template with data in a single pass
+        return template.render(buildTemplateModel(resumeData));
+    }
 
-        return latexCode;
+    @Override
+    public Map<String, Map<String, Object>> getTemplateMetadata() {
+        return templateRegistry.metadata();
     }
 
     @Override
     public Map<String, String> getAvailableTemplates() {
-        Map<String, String> templates = new LinkedHashMap<>();
-        templates.put("modern", "Modern CV - Clean and contemporary design with ModernCV package");
-        templates.put("professional", "Professional - Classic two-column layout for all industries");
-        templates.put("ats", "ATS-Optimized - Simple format that passes automated screening");
-        templates.put("creative", "Creative - Bold and unique design for creative professionals");
-        return templates;
+        return templateRegistry.descriptions();
     }
 
     @Override
     public String escapeLatexSpecialChars(String text) {
-        if (text == null || text.isEmpty()) {
-            return "";
-        }
-
-        // Escape LaTeX special characters
-        text = text.replace("\\", "\\textbackslash{}");
-        text = text.replace("&", "\\&");
-        text = text.replace("%", "\\%");
-        text = text.replace("$", "\\$");
-        text = text.replace("#", "\\#");
-        text = text.replace("_", "\\_");
-        text = text.replace("{", "\\{");
-        text = text.replace("}", "\\}");
-        text = text.replace("~", "\\textasciitilde{}");
-        text = text.replace("^", "\\textasciicircum{}");
-
-        return text;
+        return LatexEscaper.escape(text);
     }
 
-    private String loadLatexTemplate(String templateType) throws IOException {
-        String fileName = "latex_templates/" + templateType + "_template.tex";
-        try {
-            ClassPathResource resource = new ClassPathResource(fileName);
-            if (!resource.exists()) {
-                throw new IOException("LaTeX template not found: " + fileName);
-            }
-
-            try (InputStream inputStream = resource.getInputStream()) {
-                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            }
-        } catch (Exception e) {
-            throw new IOException("Failed to load LaTeX template: " + fileName, e);
-        }
-    }
+    /**
+     * Map the resume JSON onto the names used by the templates. Values stay raw;
+     * {@link LatexTemplate} escapes them while rendering. Missing values are left
+     * out and render as nothing. Also the input of {@link PdfBoxResumeRenderer}.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> buildTemplateModel(Map<String, Object> resumeData) {
+        Map<String, Object> model = new HashMap<>();
 
-    private String populateTemplate(String template, Map<String, Object> resumeData) {
-        // Extract personal information
+        // Personal information and optional links
         Map<String, Object> personalInfo = getMapValue(resumeData, "personalInformation");
-
-        // Replace simple placeholders
-        template = replacePlaceholder(template, "FULL_NAME",
-                getStringValue(personalInfo, "fullName"));
-    template = replacePlaceholder(template, "EMAIL",
-        getStringValue(personalInfo, "email"));
-    template = replacePlaceholder(template, "PHONE_NUMBER",
-        getStringValue(personalInfo, "phoneNumber"));
-        template = replacePlaceholder(template, "LOCATION",
-                getStringValue(personalInfo, "location"));
-
-        // Handle optional links
-    // Optional sections in header/footer links
-    template = handleOptionalSection(template, "LINKEDIN",
-                getStringValue(personalInfo, "linkedIn"));
-        template = handleOptionalSection(template, "GITHUB",
-                getStringValue(personalInfo, "gitHub"));
-        template = handleOptionalSection(template, "PORTFOLIO",
-                getStringValue(personalInfo, "portfolio"));
-    template = handleOptionalSection(template, "EMAIL",
-        getStringValue(personalInfo, "email"));
-    template = handleOptionalSection(template, "PHONE_NUMBER",
-        getStringValue(personalInfo, "phoneNumber"));
+        model.put("FULL_NAME", getStringValue(personalInfo, "fullName"));
+        model.put("EMAIL", getStringValue(personalInfo, "email"));
+        model.put("PHONE_NUMBER", getStringValue(personalInfo, "phoneNumber"));
+        model.put("LOCATION", getStringValue(personalInfo, "location"));
+        model.put("PORTFOLIO", getStringValue(personalInfo, "portfolio"));
 
         // LinkedIn and GitHub display (without https://)
         String linkedin = getStringValue(personalInfo, "linkedIn");
         String github = getStringValue(personalInfo, "gitHub");
-        template = replacePlaceholder(template, "LINKEDIN_DISPLAY",
-                linkedin.replace("https://", "").replace("http://", ""));
-        template = replacePlaceholder(template, "GITHUB_DISPLAY",
-                github.replace("https://", "").replace("http://", ""));
+        model.put("LINKEDIN", linkedin);
+        model.put("GITHUB", github);
+        model.put("LINKEDIN_DISPLAY", linkedin.replace("https://", "").replace("http://", ""));
+        model.put("GITHUB_DISPLAY", github.replace("https://", "").replace("http://", ""));
 
         // Summary
-        template = handleOptionalSection(template, "SUMMARY",
-                getStringValue(resumeData, "summary"));
-
-        // Skills
-        template = handleSkillsSection(template, resumeData);
-
-        // Experience
-        template = handleExperienceSection(template, resumeData);
-
-        // Projects
-        template = handleProjectsSection(template, resumeData);
-
-        // Education
-        template = handleEducationSection(template, resumeData);
+        model.put("SUMMARY", getStringValue(resumeData, "summary"));
 
-        // Certifications
-        template = handleCertificationsSection(template, resumeData);
-
-        // Achievements
-        template = handleAchievementsSection(template, resumeData);
-
-        // Languages
-        template = handleLanguagesSection(template, resumeData);
-
-        // As a final safety step, strip any leftover Mustache-like tags so LaTeX never sees
-        // raw markers like {{#EMAIL}} or {{UNRESOLVED}} which can introduce # into TeX.
-        return sanitizeTemplateArtifacts(template);
-    }
-
-    /**
-     * Remove any leftover Mustache-like artifacts to avoid LaTeX errors if a placeholder/section
-     * slips through. This is a defensive cleanup that runs after all normal replacements.
-     *
-     * Examples removed:
-     *  - {{#SECTION}} ... {{/SECTION}}
-     *  - {{PLACEHOLDER}}
-     *  - {{{PLACEHOLDER}}}
-     */
-    private String sanitizeTemplateArtifacts(String template) {
-        if (template == null || template.isEmpty()) return template;
+        putList(model, "SKILLS", resumeData, "skills", (skill, entry) -> {
+            entry.put("SKILL_TITLE", getStringValue(skill, "title"));
+            entry.put("SKILL_LEVEL", getStringValue(skill, "level"));
+        });
 
-        // 1) Remove any remaining section blocks of the form {{#NAME}} ... {{/NAME}}
-        // Use DOTALL-like behavior by matching across newlines with (?s) and reluctant quantifier
-        // Java does not support inline DOTALL in String#replaceAll, so we use (?s) at pattern start
-        template = template.replaceAll("(?s)\\{\\{#\\s*([A-Za-z0-9_]+)\\s*\\}\\}.*?\\{\\{/\\s*\\1\\s*\\}\\}", "");
+        putList(model, "EXPERIENCE", resumeData, "experience", (exp, entry) -> {
+            entry.put("JOB_TITLE", getStringValue(exp, "jobTitle"));
+            entry.put("COMPANY", getStringValue(exp, "company"));
+            entry.put("LOCATION", getStringValue(exp, "location"));
+            entry.put("DURATION", getStringValue(exp, "duration"));
+            entry.put("RESPONSIBILITY", getStringValue(exp, "responsibility"));
+        });
 
-        // 2) Remove any remaining triple-braced placeholders {{{NAME}}}
-        template = template.replaceAll("\\{\\{\\{\\s*[A-Za-z0-9_]+\\s*\\}\\}\\}", "");
-
-        // 3) Remove any remaining double-braced placeholders {{NAME}}
-        template = template.replaceAll("\\{\\{\\s*[A-Za-z0-9_]+\\s*\\}\\}", "");
-
-        return template;
-    }
-
-    private String handleSkillsSection(String template, Map<String, Object> resumeData) {
-        List<Map<String, Object>> skills = getListValue(resumeData, "skills");
-
-        if (skills == null || skills.isEmpty()) {
-            template = removeSection(template, "HAS_SKILLS");
-            return template;
-        }
-
-        template = template.replace("{{#HAS_SKILLS}}", "");
-        template = template.replace("{{/HAS_SKILLS}}", "");
-
-        StringBuilder skillsContent = new StringBuilder();
-        String skillTemplate = extractLoopTemplate(template, "SKILLS");
-
-        for (Map<String, Object> skill : skills) {
-            String skillEntry = skillTemplate;
-            skillEntry = skillEntry.replace("{{SKILL_TITLE}}",
-                    escapeLatexSpecialChars(getStringValue(skill, "title")));
-            skillEntry = skillEntry.replace("{{SKILL_LEVEL}}",
-                    escapeLatexSpecialChars(getStringValue(skill, "level")));
-            skillsContent.append(skillEntry);
-        }
-
-        template = replaceLoop(template, "SKILLS", skillsContent.toString());
-        return template;
-    }
-
-    private String handleExperienceSection(String template, Map<String, Object> resumeData) {
-        List<Map<String, Object>> experiences = getListValue(resumeData, "experience");
-
-        if (experiences == null || experiences.isEmpty()) {
-            template = removeSection(template, "HAS_EXPERIENCE");
-            return template;
-        }
-
-        template = template.replace("{{#HAS_EXPERIENCE}}", "");
-        template = template.replace("{{/HAS_EXPERIENCE}}", "");
-
-        StringBuilder expContent = new StringBuilder();
-        String expTemplate = extractLoopTemplate(template, "EXPERIENCE");
-
-        for (Map<String, Object> exp : experiences) {
-            String expEntry = expTemplate;
-            expEntry = expEntry.replace("{{JOB_TITLE}}",
-                    escapeLatexSpecialChars(getStringValue(exp, "jobTitle")));
-            expEntry = expEntry.replace("{{COMPANY}}",
-                    escapeLatexSpecialChars(getStringValue(exp, "company")));
-            expEntry = expEntry.replace("{{LOCATION}}",
-                    escapeLatexSpecialChars(getStringValue(exp, "location")));
-            expEntry = expEntry.replace("{{DURATION}}",
-                    escapeLatexSpecialChars(getStringValue(exp, "duration")));
-            expEntry = expEntry.replace("{{RESPONSIBILITY}}",
-                    escapeLatexSpecialChars(getStringValue(exp, "responsibility")));
-            expContent.append(expEntry);
-        }
-
-        template = replaceLoop(template, "EXPERIENCE", expContent.toString());
-        return template;
-    }
-
-    private String handleProjectsSection(String template, Map<String, Object> resumeData) {
-        List<Map<String, Object>> projects = getListValue(resumeData, "projects");
-
-        if (projects == null || projects.isEmpty()) {
-            template = removeSection(template, "HAS_PROJECTS");
-            return template;
-        }
-
-        template = template.replace("{{#HAS_PROJECTS}}", "");
-        template = template.replace("{{/HAS_PROJECTS}}", "");
-
-        StringBuilder projContent = new StringBuilder();
-        String projTemplate = extractLoopTemplate(template, "PROJECTS");
-
-        for (Map<String, Object> project : projects) {
-            String projEntry = projTemplate;
-            projEntry = projEntry.replace("{{PROJECT_TITLE}}",
-                    escapeLatexSpecialChars(getStringValue(project, "title")));
-            projEntry = projEntry.replace("{{PROJECT_DESCRIPTION}}",
-                    escapeLatexSpecialChars(getStringValue(project, "description")));
+        putList(model, "PROJECTS", resumeData, "projects", (project, entry) -> {
+            entry.put("PROJECT_TITLE", getStringValue(project, "title"));
+            entry.put("PROJECT_DESCRIPTION", getStringValue(project, "description"));
 
             // Handle technologies (could be array or string)
             Object techObj = project.get("technologiesUsed");
             String technologies = "";
-            if (techObj instanceof List) {
-                technologies = String.join(", ", (List<String>) techObj);
+            if (techObj instanceof List<?> techList) {
+                StringJoiner joiner = new StringJoiner(", ");
+                for (Object tech : techList) {
+                    joiner.add(String.valueOf(tech));
+                }
+                technologies = joiner.toString();
             } else if (techObj instanceof String) {
                 technologies = (String) techObj;
             }
-            projEntry = projEntry.replace("{{TECHNOLOGIES}}",
-                    escapeLatexSpecialChars(technologies));
-
-            // Handle GitHub link (optional)
-            String githubLink = getStringValue(project, "githubLink");
-            if (githubLink != null && !githubLink.isEmpty()) {
-                projEntry = projEntry.replace("{{#GITHUB_LINK}}", "");
-                projEntry = projEntry.replace("{{/GITHUB_LINK}}", "");
-                projEntry = projEntry.replace("{{GITHUB_LINK}}",
-                        escapeLatexSpecialChars(githubLink));
-            } else {
-                projEntry = removeSection(projEntry, "GITHUB_LINK");
-            }
-
-            projContent.append(projEntry);
-        }
-
-        template = replaceLoop(template, "PROJECTS", projContent.toString());
-        return template;
-    }
-
-    private String handleEducationSection(String template, Map<String, Object> resumeData) {
-        List<Map<String, Object>> education = getListValue(resumeData, "education");
-
-        if (education == null || education.isEmpty()) {
-            template = removeSection(template, "HAS_EDUCATION");
-            return template;
-        }
-
-        template = template.replace("{{#HAS_EDUCATION}}", "");
-        template = template.replace("{{/HAS_EDUCATION}}", "");
-
-        StringBuilder eduContent = new StringBuilder();
-        String eduTemplate = extractLoopTemplate(template, "EDUCATION");
-
-        for (Map<String, Object> edu : education) {
-            String eduEntry = eduTemplate;
-            eduEntry = eduEntry.replace("{{DEGREE}}",
-                    escapeLatexSpecialChars(getStringValue(edu, "degree")));
-            eduEntry = eduEntry.replace("{{UNIVERSITY}}",
-                    escapeLatexSpecialChars(getStringValue(edu, "university")));
-            eduEntry = eduEntry.replace("{{LOCATION}}",
-                    escapeLatexSpecialChars(getStringValue(edu, "location")));
-            eduEntry = eduEntry.replace("{{GRADUATION_YEAR}}",
-                    escapeLatexSpecialChars(getStringValue(edu, "graduationYear")));
-            eduContent.append(eduEntry);
-        }
-
-        template = replaceLoop(template, "EDUCATION", eduContent.toString());
-        return template;
-    }
-
-    private String handleCertificationsSection(String template, Map<String, Object> resumeData) {
-        List<Map<String, Object>> certifications = getListValue(resumeData, "certifications");
-
-        if (certifications == null || certifications.isEmpty()) {
-            template = removeSection(template, "HAS_CERTIFICATIONS");
-            return template;
-        }
-
-        template = template.replace("{{#HAS_CERTIFICATIONS}}", "");
-        template = template.replace("{{/HAS_CERTIFICATIONS}}", "");
-
-        StringBuilder certContent = new StringBuilder();
-        String certTemplate = extractLoopTemplate(template, "CERTIFICATIONS");
-
-        for (Map<String, Object> cert : certifications) {
-            String certEntry = certTemplate;
-            certEntry = certEntry.replace("{{CERT_TITLE}}",
-                    escapeLatexSpecialChars(getStringValue(cert, "title")));
-            certEntry = certEntry.replace("{{ISSUING_ORG}}",
-                    escapeLatexSpecialChars(getStringValue(cert, "issuingOrganization")));
-            certEntry = certEntry.replace("{{CERT_YEAR}}",
-                    escapeLatexSpecialChars(getStringValue(cert, "year")));
-            certContent.append(certEntry);
-        }
-
-        template = replaceLoop(template, "CERTIFICATIONS", certContent.toString());
-        return template;
-    }
-
-    private String handleAchievementsSection(String template, Map<String, Object> resumeData) {
-        List<Map<String, Object>> achievements = getListValue(resumeData, "achievements");
-
-        if (achievements == null || achievements.isEmpty()) {
-            template = removeSection(template, "HAS_ACHIEVEMENTS");
-            return template;
-        }
-
-        template = template.replace("{{#HAS_ACHIEVEMENTS}}", "");
-        template = template.replace("{{/HAS_ACHIEVEMENTS}}", "");
-
-        StringBuilder achContent = new StringBuilder();
-        String achTemplate = extractLoopTemplate(template, "ACHIEVEMENTS");
-
-        for (Map<String, Object> ach : achievements) {
-            String achEntry = achTemplate;
-            achEntry = achEntry.replace("{{ACH_TITLE}}",
-                    escapeLatexSpecialChars(getStringValue(ach, "title")));
-            achEntry = achEntry.replace("{{ACH_YEAR}}",
-                    escapeLatexSpecialChars(getStringValue(ach, "year")));
-            achContent.append(achEntry);
-        }
-
-        template = replaceLoop(template, "ACHIEVEMENTS", achContent.toString());
-        return template;
-    }
-
-    private String handleLanguagesSection(String template, Map<String, Object> resumeData) {
+            entry.put("TECHNOLOGIES", technologies);
+
+            // Optional; an empty link hides the {{#GITHUB_LINK}} block
+            entry.put("GITHUB_LINK", getStringValue(project, "githubLink"));
+        });
+
+        putList(model, "EDUCATION", resumeData, "education", (edu, entry) -> {
+            entry.put("DEGREE", getStringValue(edu, "degree"));
+            entry.put("UNIVERSITY", getStringValue(edu, "university"));
+            entry.put("LOCATION", getStringValue(edu, "location"));
+            entry.put("GRADUATION_YEAR", getStringValue(edu, "graduationYear"));
+        });
+
+        putList(model, "CERTIFICATIONS", resumeData, "certifications", (cert, entry) -> {
+            entry.put("CERT_TITLE", getStringValue(cert, "title"));
+            entry.put("ISSUING_ORG", getStringValue(cert, "issuingOrganization"));
+            entry.put("CERT_YEAR", getStringValue(cert, "year"));
+        });
+
+        putList(model, "ACHIEVEMENTS", resumeData, "achievements", (ach, entry) -> {
+            entry.put("ACH_TITLE", getStringValue(ach, "title"));
+            entry.put("ACH_YEAR", getStringValue(ach, "year"));
+        });
+
+        // Languages, as a comma-separated string
         List<?> languages = getListValue(resumeData, "languages");
-
-        if (languages == null || languages.isEmpty()) {
-            template = removeSection(template, "HAS_LANGUAGES");
-            return template;
-        }
-
-        template = template.replace("{{#HAS_LANGUAGES}}", "");
-        template = template.replace("{{/HAS_LANGUAGES}}", "");
-
-        // Convert languages to comma-separated string
         List<String> langNames = new ArrayList<>();
         for (Object lang : languages) {
             if (lang instanceof Map) {
@@ -382,70 +135,34 @@ public class LatexServiceImpl implements LatexService {
                 langNames.add((String) lang);
             }
         }
+        model.put("HAS_LANGUAGES", !languages.isEmpty());
+        model.put("LANGUAGES_LIST", String.join(", ", langNames));
 
-        template = template.replace("{{LANGUAGES_LIST}}",
-                escapeLatexSpecialChars(String.join(", ", langNames)));
-        return template;
+        return model;
     }
 
-    // Helper methods
-    private String replacePlaceholder(String template, String placeholder, String value) {
-        return template.replace("{{" + placeholder + "}}", escapeLatexSpecialChars(value));
-    }
-
-    private String handleOptionalSection(String template, String sectionName, String value) {
-        if (value == null || value.trim().isEmpty()) {
-            return removeSection(template, sectionName);
+    /**
+     * Put {@code NAME} (list of entries) and {@code HAS_NAME} (non-empty flag) for
+     * one repeated section. Entries that are not JSON objects are skipped.
+     */
+    @SuppressWarnings("unchecked")
+    private static void putList(Map<String, Object> model, String name, Map<String, Object> resumeData, String key,
+            BiConsumer<Map<String, Object>, Map<String, Object>> mapper) {
+        List<?> items = getListValue(resumeData, key);
+        List<Map<String, Object>> entries = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item instanceof Map) {
+                Map<String, Object> entry = new HashMap<>();
+                mapper.accept((Map<String, Object>) item, entry);
+                entries.add(entry);
+            }
         }
-        template = template.replace("{{#" + sectionName + "}}", "");
-        template = template.replace("{{/" + sectionName + "}}", "");
-        template = template.replace("{{" + sectionName + "}}", escapeLatexSpecialChars(value));
-        return template;
-    }
-
-    private String removeSection(String template, String sectionName) {
-        String startTag = "{{#" + sectionName + "}}";
-        String endTag = "{{/" + sectionName + "}}";
-
-        int startIndex = template.indexOf(startTag);
-        if (startIndex == -1)
-            return template;
-
-        int endIndex = template.indexOf(endTag);
-        if (endIndex == -1)
-            return template;
-
-        return template.substring(0, startIndex) + template.substring(endIndex + endTag.length());
-    }
-
-    private String extractLoopTemplate(String template, String loopName) {
-        String startTag = "{{#" + loopName + "}}";
-        String endTag = "{{/" + loopName + "}}";
-
-        int startIndex = template.indexOf(startTag);
-        int endIndex = template.indexOf(endTag);
-
-        if (startIndex == -1 || endIndex == -1)
-            return "";
-
-        return template.substring(startIndex + startTag.length(), endIndex);
-    }
-
-    private String replaceLoop(String template, String loopName, String content) {
-        String startTag = "{{#" + loopName + "}}";
-        String endTag = "{{/" + loopName + "}}";
-
-        int startIndex = template.indexOf(startTag);
-        int endIndex = template.indexOf(endTag);
-
-        if (startIndex == -1 || endIndex == -1)
-            return template;
-
-        return template.substring(0, startIndex) + content + template.substring(endIndex + endTag.length());
+        model.put("HAS_" + name, !items.isEmpty());
+        model.put(name, entries);
     }
 
     @SuppressWarnings("unchecked")
-    private Map<String, Object> getMapValue(Map<String, Object> map, String key) {
+    private static Map<String, Object> getMapValue(Map<String, Object> map, String key) {
         if (map == null)
             return new HashMap<>();
         Object value = map.get(key);
@@ -456,7 +173,7 @@ public class LatexServiceImpl implements LatexService {
     }
 
     @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> getListValue(Map<String, Object> map, String key) {
+    private static List<Map<String, Object>> getListValue(Map<String, Object> map, String key) {
         if (map == null)
             return new ArrayList<>();
         Object value = map.get(key);
@@ -466,7 +183,7 @@ public class LatexServiceImpl implements LatexService {
         return new ArrayList<>();
     }
 
-    private String getStringValue(Map<String, Object> map, String key) {
+    private static String getStringValue(Map<String, Object> map, String key) {
         if (map == null)
             return "";
         Object value = map.get(key);
@@ -0,0 +1,277 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A LaTeX template parsed once into a tree of literals, placeholders and
+ * sections, rendered in a single pass into one buffer.
+ *
+ * Syntax (a small Mustache subset):
+ * <ul>
+ * <li>{@code {{NAME}}} - the escaped value of NAME, or nothing if it is missing</li>
+ * <li>{@code {{#NAME}}...{{/NAME}}} - rendered once per element when NAME is a
+ * list (each map element opens a new scope), once when NAME is a non-blank
+ * string or {@code true}, and skipped otherwise</li>
+ * <li>{@code {{{NAME}}}} - a literal brace around a placeholder, as in
+ * {@code \textbf{{{NAME}}}}</li>
+ * </ul>
+ * Names resolve in the innermost scope that defines them, so an experience
+ * entry's LOCATION wins over the personal LOCATION.
+ *
+ * The top-level nodes are also exposed as fragments, each with the set of
+ * names it reads, so {@link IncrementalLatexRenderer} can re-render only the
+ * fragments whose inputs changed.
+ */
+public final class LatexTemplate {
+
+    private final String name;
+    private final String source;
+    private final Node[] nodes;
+    private final Set<String> sectionNames;
+    private final Set<String> placeholderNames;
+    private final List<Set<String>> fragmentInputs;
+
+    private interface Node {
+        void render(StringBuilder out, Scope scope);
+    }
+
+    private record Text(String text) implements Node {
+        @Override
+        public void render(StringBuilder out, Scope scope) {
+            out.append(text);
+        }
+    }
+
+    private record Var(String name) implements Node {
+        @Override
+        public void render(StringBuilder out, Scope scope) {
+            Object value = scope.lookup(name);
+            if (value != null) {
+                LatexEscaper.appendEscaped(out, value.toString());
+            }
+        }
+    }
+
+    private record Section(String name, Node[] children) implements Node {
+        @Override
+        public void render(StringBuilder out, Scope scope) {
+            Object value = scope.lookup(name);
+            if (value instanceof Collection<?> items) {
+                for (Object item : items) {
+                    Scope itemScope = item instanceof Map<?, ?> map ? new Scope(map, scope) : scope;
+                    renderAll(children, out, itemScope);
+                }
+            } else if (isTruthy(value)) {
+                renderAll(children, out, scope);
+            }
+        }
+    }
+
+    private static final class Scope {
+        final Map<?, ?> values;
+        final Scope parent;
+
+        Scope(Map<?, ?> values, Scope parent) {
+            this.values = values;
+            this.parent = parent;
+        }
+
+        Object lookup(String name) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (scope.values.containsKey(name)) {
+                    return scope.values.get(name);
+                }
+            }
+            return null;
+        }
+    }
+
+    private LatexTemplate(String name, String source, Node[] nodes, Set<String> sectionNames,
+            Set<String> placeholderNames) {
+        this.name = name;
+        this.source = source;
+        this.nodes = nodes;
+        this.sectionNames = Collections.unmodifiableSet(sectionNames);
+        this.placeholderNames = Collections.unmodifiableSet(placeholderNames);
+        List<Set<String>> inputs = new ArrayList<>(nodes.length);
+        for (Node node : nodes) {
+            Set<String> names = new LinkedHashSet<>();
+            collectNames(node, names);
+            inputs.add(Collections.unmodifiableSet(names));
+        }
+        this.fragmentInputs = Collections.unmodifiableList(inputs);
+    }
+
+    /**
+     * @throws IllegalArgumentException if sections are not properly nested
+     */
+    public static LatexTemplate parse(String name, String source) {
+        Deque<String> openSections = new ArrayDeque<>();
+        Set<String> sectionNames = new LinkedHashSet<>();
+        Set<String> placeholderNames = new LinkedHashSet<>();
+        Deque<List<Node>> levels = new ArrayDeque<>();
+        levels.push(new ArrayList<>());
+        StringBuilder text = new StringBuilder();
+
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                text.append(source, pos, source.length());
+                break;
+            }
+            if (open + 2 < source.length() && source.charAt(open + 2) == '{') {
+                // "{{{NAME}}}": the first brace is literal
+                text.append(source, pos, open + 1);
+                pos = open + 1;
+                continue;
+            }
+            int close = source.indexOf("}}", open + 2);
+            String tag = close < 0 ? null : source.substring(open + 2, close).trim();
+            if (tag == null || !isTag(tag)) {
+                text.append(source, pos, open + 1);
+                pos = open + 1;
+                continue;
+            }
+
+            text.append(source, pos, open);
+            flushText(text, levels.peek());
+            char kind = tag.charAt(0);
+            if (kind == '#') {
+                openSections.push(tag.substring(1).trim());
+                sectionNames.add(openSections.peek());
+                levels.push(new ArrayList<>());
+            } else if (kind == '/') {
+                String closing = tag.substring(1).trim();
+                if (openSections.isEmpty() || !openSections.peek().equals(closing)) {
+                    throw new IllegalArgumentException("Template " + name + ": unexpected {{/" + closing + "}}");
+                }
+                Node[] children = levels.pop().toArray(new Node[0]);
+                levels.peek().add(new Section(openSections.pop(), children));
+            } else {
+                levels.peek().add(new Var(tag));
+                placeholderNames.add(tag);
+            }
+            pos = close + 2;
+        }
+        flushText(text, levels.peek());
+        if (!openSections.isEmpty()) {
+            throw new IllegalArgumentException("Template " + name + ": unclosed {{#" + openSections.peek() + "}}");
+        }
+        return new LatexTemplate(name, source, levels.pop().toArray(new Node[0]), sectionNames,
+                placeholderNames);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /** Names used as {@code {{#NAME}}} blocks or loops. */
+    public Set<String> getSectionNames() {
+        return sectionNames;
+    }
+
+    /** Names used as {@code {{NAME}}} placeholders. */
+    public Set<String> getPlaceholderNames() {
+        return placeholderNames;
+    }
+
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(source.length() + 4096);
+        render(model, out);
+        return out.toString();
+    }
+
+    public void render(Map<String, ?> model, StringBuilder out) {
+        renderAll(nodes, out, new Scope(model, null));
+    }
+
+    /** Number of top-level fragments; rendering them in order gives the document. */
+    public int getFragmentCount() {
+        return nodes.length;
+    }
+
+    /**
+     * Names fragment {@code index} may read from the model. Nested names are
+     * included too, since a name missing from a list entry falls back to the
+     * model, so equal values for these names give the same output.
+     */
+    public Set<String> getFragmentInputs(int index) {
+        return fragmentInputs.get(index);
+    }
+
+    public void renderFragment(int index, Map<String, ?> model, StringBuilder out) {
+        nodes[index].render(out, new Scope(model, null));
+    }
+
+    private static void collectNames(Node node, Set<String> names) {
+        if (node instanceof Var var) {
+            names.add(var.name());
+        } else if (node instanceof Section section) {
+            names.add(section.name());
+            for (Node child : section.children()) {
+                collectNames(child, names);
+            }
+        }
+    }
+
+    private static void renderAll(Node[] nodes, StringBuilder out, Scope scope) {
+        for (Node node : nodes) {
+            node.render(out, scope);
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean flag) {
+            return flag;
+        }
+        if (value instanceof CharSequence text) {
+            return !text.toString().isBlank();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        return true;
+    }
+
+    // [#/]?NAME with NAME made of letters, digits and underscores
+    private static boolean isTag(String tag) {
+        if (tag.isEmpty()) {
+            return false;
+        }
+        int start = tag.charAt(0) == '#' || tag.charAt(0) == '/' ? 1 : 0;
+        String name = tag.substring(start).trim();
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void flushText(StringBuilder text, List<Node> level) {
+        if (text.length() > 0) {
+            level.add(new Text(text.toString()));
+            text.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * All LaTeX templates, discovered on the classpath as
+ * {@code latex_templates/*_template.tex} and parsed once at startup.
+ *
+ * A template's name is its file name without {@code _template.tex}; its
+ * description comes from a leading {@code % description: ...} comment. With
+ * {@code latex.templates.watch=true} a directory is watched and the whole set is
+ * re-parsed on change, then swapped in atomically; a template that fails to
+ * parse leaves the previous set in place.
+ */
+@Service
+public class LatexTemplateRegistry {
+
+    private static final String LOCATION_PATTERN = "classpath*:latex_templates/*_template.tex";
+    private static final String SUFFIX = "_template.tex";
+    private static final Pattern DESCRIPTION = Pattern.compile("^%\\s*description:\\s*(.+)$", Pattern.MULTILINE);
+    private static final Pattern DOCUMENT_CLASS = Pattern.compile("\\\\documentclass(?:\\[[^\\]]*\\])?\\{([^}]+)\\}");
+    private static final Pattern USE_PACKAGE = Pattern.compile("^\\s*\\\\usepackage(?:\\[[^\\]]*\\])?\\{([^}]+)\\}",
+            Pattern.MULTILINE);
+    // Packages that noticeably slow down a compile (font loading, graphics)
+    private static final List<String> HEAVY_PACKAGES = List.of("fontawesome", "fontawesome5", "fontspec", "tikz",
+            "pgfplots", "graphicx");
+    private static final List<String> HEAVY_CLASSES = List.of("moderncv");
+
+    /** A parsed template with the metadata reported by /api/latex/templates. */
+    public record Entry(String name, String description, LatexTemplate template, Map<String, Object> metadata) {
+    }
+
+    private final boolean watch;
+    private final String watchDir;
+    private volatile Map<String, Entry> templates = Map.of();
+    private WatchService watchService;
+
+    public LatexTemplateRegistry(@Value("${latex.templates.watch:false}") boolean watch,
+            @Value("${latex.templates.watchDir:}") String watchDir) {
+        this.watch = watch;
+        this.watchDir = watchDir;
+    }
+
+    @PostConstruct
+    public void loadAll() throws IOException {
+        Map<String, Entry> loaded = new TreeMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION_PATTERN)) {
+            String fileName = resource.getFilename();
+            if (fileName == null || !fileName.endsWith(SUFFIX)) {
+                continue;
+            }
+            try (InputStream inputStream = resource.getInputStream()) {
+                Entry entry = parse(fileName, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+                loaded.putIfAbsent(entry.name(), entry);
+            }
+        }
+        if (loaded.isEmpty()) {
+            throw new IOException("No LaTeX templates found at " + LOCATION_PATTERN);
+        }
+        templates = Collections.unmodifiableMap(loaded);
+        System.out.println("Loaded LaTeX templates: " + loaded.keySet());
+
+        if (watch) {
+            startWatching(resolveWatchDir());
+        }
+    }
+
+    public LatexTemplate get(String name) throws IOException {
+        Entry entry = templates.get(name);
+        if (entry == null) {
+            throw new IOException("LaTeX template not found: " + name + SUFFIX);
+        }
+        return entry.template();
+    }
+
+    public boolean contains(String name) {
+        return templates.containsKey(name);
+    }
+
+    /** Template names and descriptions, in name order. */
+    public Map<String, String> descriptions() {
+        Map<String, String> out = new LinkedHashMap<>();
+        templates.values().forEach(entry -> out.put(entry.name(), entry.description()));
+        return out;
+    }
+
+    public Map<String, Map<String, Object>> metadata() {
+        Map<String, Map<String, Object>> out = new LinkedHashMap<>();
+        templates.values().forEach(entry -> out.put(entry.name(), entry.metadata()));
+        return out;
+    }
+
+    private static Entry parse(String fileName, String source) {
+        String name = fileName.substring(0, fileName.length() - SUFFIX.length());
+        LatexTemplate template = LatexTemplate.parse(fileName, source);
+
+        Matcher description = DESCRIPTION.matcher(source);
+        Matcher documentClass = DOCUMENT_CLASS.matcher(source);
+        String docClass = documentClass.find() ? documentClass.group(1).trim() : "article";
+        List<String> packages = new ArrayList<>();
+        Matcher usePackage = USE_PACKAGE.matcher(source);
+        while (usePackage.find()) {
+            for (String pkg : usePackage.group(1).split(",")) {
+                packages.add(pkg.trim());
+            }
+        }
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("description", description.find() ? description.group(1).trim() : name);
+        metadata.put("documentClass", docClass);
+        metadata.put("packages", packages);
+        metadata.put("sections", List.copyOf(template.getSectionNames()));
+        metadata.put("placeholders", List.copyOf(template.getPlaceholderNames()));
+        metadata.put("sourceBytes", source.getBytes(StandardCharsets.UTF_8).length);
+        metadata.put("estimatedCompileCost", estimateCompileCost(docClass, packages));
+        return new Entry(name, (String) metadata.get("description"), template, Collections.unmodifiableMap(metadata));
+    }
+
+    /**
+     * Relative compile cost: 1 for a bare article, plus a little per package and
+     * more for packages and classes known to load fonts or graphics. Only meant
+     * to rank templates against each other.
+     */
+    private static Map<String, Object> estimateCompileCost(String documentClass, List<String> packages) {
+        double units = 1.0 + 0.1 * packages.size();
+        for (String pkg : packages) {
+            if (HEAVY_PACKAGES.contains(pkg)) {
+                units += 0.5;
+            }
+        }
+        if (HEAVY_CLASSES.contains(documentClass)) {
+            units += 1.0;
+        }
+        units = Math.round(units * 10) / 10.0;
+        String level = units < 1.75 ? "low" : units < 2.5 ? "medium" : "high";
+        return Map.of("units", units, "level", level);
+    }
+
+    private Path resolveWatchDir() throws IOException {
+        if (watchDir != null && !watchDir.isBlank()) {
+            return Path.of(watchDir.trim());
+        }
+        // Exploded classpath (IDE / spring-boot:run); not available inside a jar
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION_PATTERN);
+        for (Resource resource : resources) {
+            if (resource.isFile()) {
+                return resource.getFile().toPath().getParent();
+            }
+        }
+        return null;
+    }
+
+    private void startWatching(Path dir) throws IOException {
+        if (dir == null || !Files.isDirectory(dir)) {
+            System.err.println("LaTeX template watch disabled: no template directory on the file system");
+            return;
+        }
+        watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        Thread thread = new Thread(() -> watchLoop(dir), "latex-template-watch");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("Watching LaTeX templates in " + dir);
+    }
+
+    private void watchLoop(Path dir) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // Editors often emit several events per save; drain them before reloading
+                key.pollEvents();
+                key.reset();
+                reloadFrom(dir);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private void reloadFrom(Path dir) {
+        Map<String, Entry> loaded = new TreeMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(SUFFIX)) {
+                    Entry entry = parse(fileName, Files.readString(file, StandardCharsets.UTF_8));
+                    loaded.put(entry.name(), entry);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("LaTeX template reload failed, keeping previous templates: " + e.getMessage());
+            return;
+        }
+        if (loaded.isEmpty()) {
+            System.err.println("LaTeX template reload found no templates in " + dir + ", keeping previous templates");
+            return;
+        }
+        templates = Collections.unmodifiableMap(loaded);
+        System.out.println("Reloaded LaTeX templates: " + loaded.keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
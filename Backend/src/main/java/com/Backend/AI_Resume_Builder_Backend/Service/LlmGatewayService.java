@@ -0,0 +1,129 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Entry point for LLM calls made by the resume and ATS services.
+ *
+ * Responses are cached by a hash of (model, prompt file version, rendered
+ * prompt), so regenerating the same resume from the same description is served
+ * without a model round trip. Only responses the caller accepts are cached, so
+ * a malformed answer is not served again for the lifetime of the cache entry. Cache misses go to the {@link LlmRouter}, which
+ * picks a healthy provider and applies its concurrency limit, so traffic spikes
+ * queue briefly or are shed with a 503 instead of piling up as upstream 429s.
+ */
+@Service
+public class LlmGatewayService {
+
+    private final LlmRouter router;
+    private final TieredCache responseCache;
+
+    public LlmGatewayService(LlmRouter router,
+            MeterRegistry meterRegistry,
+            @Value("${llm.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${llm.cache.memoryMaxBytes:33554432}") long memoryMaxBytes,
+            @Value("${llm.cache.ttlMinutes:60}") long ttlMinutes,
+            @Value("${llm.cache.diskDir:}") String diskDir,
+            @Value("${llm.cache.diskMaxBytes:268435456}") long diskMaxBytes) {
+        this.router = router;
+        this.responseCache = cacheEnabled
+                ? new TieredCache("llm.cache", memoryMaxBytes, Duration.ofMinutes(ttlMinutes),
+                        diskDir == null || diskDir.isBlank() ? null : Path.of(diskDir.trim()), diskMaxBytes,
+                        meterRegistry)
+                : null;
+    }
+
+    /**
+     * Generate a completion, answering from the cache when possible.
+     *
+     * @param promptVersion version of the prompt file the prompt was rendered
+     *                      from, see {@link #promptVersion(String)}
+     * @param prompt        fully rendered prompt
+     * @param bypassCache   skip the lookup and always call the model; the fresh
+     *                      answer still replaces the cached one
+     * @param cacheable     whether a fresh answer may be cached, typically
+     *                      whether it parses
+     */
+    public CompletableFuture<String> generate(String promptVersion, String prompt, boolean bypassCache,
+            Predicate<String> cacheable) {
+        if (responseCache == null) {
+            return router.generate(prompt).thenApply(LlmResponse::text);
+        }
+        if (!bypassCache) {
+            String cached = lookup(promptVersion, prompt);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        return router.generate(prompt).thenApply(response -> store(promptVersion, prompt, response, cacheable));
+    }
+
+    /**
+     * Streaming variant of {@link #generate(String, String, boolean, Predicate)}.
+     * Fragments are passed to {@code onChunk} as they arrive; a cached answer is
+     * delivered as a single fragment. {@code cacheable} is tested after the last
+     * fragment, so it can ask a streaming parser fed by {@code onChunk}.
+     */
+    public CompletableFuture<String> stream(String promptVersion, String prompt, boolean bypassCache,
+            Consumer<String> onChunk, Predicate<String> cacheable) {
+        if (responseCache == null) {
+            return router.stream(prompt, onChunk).thenApply(LlmResponse::text);
+        }
+        if (!bypassCache) {
+            String cached = lookup(promptVersion, prompt);
+            if (cached != null) {
+                onChunk.accept(cached);
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        return router.stream(prompt, onChunk)
+                .thenApply(response -> store(promptVersion, prompt, response, cacheable));
+    }
+
+    /**
+     * Version identifier for a prompt file, derived from its content so that
+     * editing the file invalidates cached responses automatically.
+     */
+    public static String promptVersion(String promptTemplate) {
+        return ContentHash.sha256Hex(promptTemplate).substring(0, 16);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return responseCache == null ? Map.of("enabled", false) : responseCache.stats();
+    }
+
+    public Map<String, Object> getRouterStats() {
+        return router.stats();
+    }
+
+    // Only the model that would answer now; a fallback model's answer is not reused once the primary is back
+    private String lookup(String promptVersion, String prompt) {
+        String model = router.preferredModel();
+        if (model == null) {
+            return null;
+        }
+        byte[] cached = responseCache.get(ContentHash.sha256Hex(model, promptVersion, prompt));
+        return cached == null ? null : new String(cached, StandardCharsets.UTF_8);
+    }
+
+    private String store(String promptVersion, String prompt, LlmResponse response,
+            Predicate<String> cacheable) {
+        if (!cacheable.test(response.text())) {
+            return response.text();
+        }
+        responseCache.put(ContentHash.sha256Hex(response.model(), promptVersion, prompt),
+                response.text().getBytes(StandardCharsets.UTF_8));
+        return response.text();
+    }
+}
@@ -0,0 +1,20 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+/**
+ * Raised when an upstream call is shed because the concurrency limit is reached
+ * and the wait queue is full (or the caller waited too long). Controllers map it
+ * to {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ */
+public class LlmOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LlmOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,43 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A backend able to answer prompts, e.g. the Gemini API or a local Ollama model.
+ * {@link LlmRouter} picks one per request based on live latency, error rate and
+ * queue depth.
+ */
+public interface LlmProvider {
+
+    /**
+     * Short identifier used in configuration and metrics, e.g. {@code gemini}.
+     */
+    String getName();
+
+    /**
+     * Model identifier; part of the response cache key.
+     */
+    String getModel();
+
+    /**
+     * Local providers run on our own hardware and get a fixed concurrency limit
+     * instead of the adaptive one used for remote APIs.
+     */
+    boolean isLocal();
+
+    boolean isAvailable();
+
+    /**
+     * @return future completing with the generated text, or exceptionally with an
+     *         {@link java.io.IOException}
+     */
+    CompletableFuture<String> generateAsync(String prompt);
+
+    /**
+     * Stream the completion, passing each text fragment to {@code onChunk}.
+     *
+     * @return future completing with the full text
+     */
+    CompletableFuture<String> streamAsync(String prompt, Consumer<String> onChunk);
+}
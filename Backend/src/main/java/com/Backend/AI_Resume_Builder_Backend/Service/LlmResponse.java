@@ -0,0 +1,7 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+/**
+ * Text returned by {@link LlmRouter} together with the provider that produced it.
+ */
+public record LlmResponse(String text, String provider, String model) {
+}
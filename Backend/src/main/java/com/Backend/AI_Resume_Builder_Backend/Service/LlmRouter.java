@@ -0,0 +1,245 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Chooses an {@link LlmProvider} per request.
+ *
+ * Providers are tried in preference order ({@code llm.router.primary} first).
+ * A provider is skipped while it is degraded: its rolling p95 latency or error
+ * rate is over budget, or its queue is backed up. A failed call falls through to
+ * the next provider, so a Gemini outage is answered by the local model instead of
+ * an error. Degraded providers still get an occasional probe request so they can
+ * recover once they are healthy again.
+ */
+@Service
+public class LlmRouter {
+
+    private static final int STATS_WINDOW = 100;
+    // Fewer samples than this are not enough to call a provider degraded
+    private static final int MIN_SAMPLES = 5;
+
+    private final List<Route> routes = new ArrayList<>();
+    private final long maxP95Millis;
+    private final double maxErrorRate;
+    private final int maxQueueDepth;
+    private final long probeIntervalNanos;
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    private static final class Route {
+        final LlmProvider provider;
+        final AdaptiveConcurrencyLimiter limiter;
+        final RollingStats stats = new RollingStats(STATS_WINDOW);
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong lastProbe = new AtomicLong(System.nanoTime());
+
+        Route(LlmProvider provider, AdaptiveConcurrencyLimiter limiter) {
+            this.provider = provider;
+            this.limiter = limiter;
+        }
+    }
+
+    public LlmRouter(List<LlmProvider> providers,
+            MeterRegistry meterRegistry,
+            @Value("${llm.router.primary:gemini}") String primary,
+            @Value("${llm.router.maxP95Seconds:30}") long maxP95Seconds,
+            @Value("${llm.router.maxErrorRate:0.5}") double maxErrorRate,
+            @Value("${llm.router.maxQueueDepth:20}") int maxQueueDepth,
+            @Value("${llm.router.probeIntervalSeconds:30}") long probeIntervalSeconds,
+            @Value("${llm.limiter.initialLimit:4}") int initialLimit,
+            @Value("${llm.limiter.minLimit:1}") int minLimit,
+            @Value("${llm.limiter.maxLimit:32}") int maxLimit,
+            @Value("${llm.limiter.maxQueue:50}") int maxQueue,
+            @Value("${llm.limiter.maxQueueWaitSeconds:30}") long maxQueueWaitSeconds,
+            @Value("${llm.limiter.latencyTolerance:2.0}") double latencyTolerance,
+            @Value("${llm.local.maxConcurrency:1}") int localMaxConcurrency,
+            @Value("${llm.local.maxQueue:10}") int localMaxQueue) {
+        this.maxP95Millis = maxP95Seconds * 1000;
+        this.maxErrorRate = maxErrorRate;
+        this.maxQueueDepth = maxQueueDepth;
+        this.probeIntervalNanos = Duration.ofSeconds(probeIntervalSeconds).toNanos();
+
+        List<LlmProvider> ordered = new ArrayList<>(providers);
+        ordered.sort(Comparator.comparing((LlmProvider p) -> !p.getName().equalsIgnoreCase(primary))
+                .thenComparing(LlmProvider::isLocal));
+        for (LlmProvider provider : ordered) {
+            String prefix = "llm.limiter." + provider.getName();
+            // Local hardware has a fixed capacity; remote APIs get the adaptive limit
+            AdaptiveConcurrencyLimiter limiter = provider.isLocal()
+                    ? new AdaptiveConcurrencyLimiter(prefix, localMaxConcurrency, localMaxConcurrency,
+                            localMaxConcurrency, localMaxQueue, Duration.ofSeconds(maxQueueWaitSeconds),
+                            Double.MAX_VALUE, meterRegistry)
+                    : new AdaptiveConcurrencyLimiter(prefix, initialLimit, minLimit, maxLimit, maxQueue,
+                            Duration.ofSeconds(maxQueueWaitSeconds), latencyTolerance, meterRegistry);
+            Route route = new Route(provider, limiter);
+            routes.add(route);
+            if (meterRegistry != null) {
+                FunctionCounter.builder("llm.router.requests", route.requests, AtomicLong::get)
+                        .tag("provider", provider.getName())
+                        .register(meterRegistry);
+            }
+        }
+        if (meterRegistry != null) {
+            FunctionCounter.builder("llm.router.fallbacks", fallbacks, AtomicLong::get).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Model of the provider a request would go to now: the first healthy one,
+     * else the first available one. Probes are not counted, so this has no side
+     * effects; the response cache uses it so a fallback answer is not served
+     * once the preferred provider has recovered.
+     *
+     * @return the model, or {@code null} if no provider is available
+     */
+    public String preferredModel() {
+        String fallback = null;
+        for (Route route : routes) {
+            if (!route.provider.isAvailable()) {
+                continue;
+            }
+            if (isHealthy(route)) {
+                return route.provider.getModel();
+            }
+            if (fallback == null) {
+                fallback = route.provider.getModel();
+            }
+        }
+        return fallback;
+    }
+
+    public CompletableFuture<LlmResponse> generate(String prompt) {
+        return dispatch(plan(), 0, route -> route.provider.generateAsync(prompt), () -> true);
+    }
+
+    /**
+     * Streaming variant of {@link #generate(String)}. Falls back to the next
+     * provider only while nothing has been streamed yet, so a client never sees
+     * output from two different models.
+     */
+    public CompletableFuture<LlmResponse> stream(String prompt, Consumer<String> onChunk) {
+        AtomicBoolean emitted = new AtomicBoolean();
+        Consumer<String> tracking = chunk -> {
+            emitted.set(true);
+            onChunk.accept(chunk);
+        };
+        return dispatch(plan(), 0, route -> route.provider.streamAsync(prompt, tracking), () -> !emitted.get());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Route route : routes) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("model", route.provider.getModel());
+            entry.put("local", route.provider.isLocal());
+            entry.put("available", route.provider.isAvailable());
+            entry.put("healthy", isHealthy(route));
+            entry.put("requests", route.requests.get());
+            entry.put("latency", route.stats.snapshot());
+            entry.put("limiter", route.limiter.stats());
+            out.put(route.provider.getName(), entry);
+        }
+        out.put("fallbacks", fallbacks.get());
+        return out;
+    }
+
+    /**
+     * Healthy providers in preference order, then degraded ones as a last resort.
+     * A degraded provider due for a probe is moved to the front.
+     */
+    private List<Route> plan() {
+        List<Route> healthy = new ArrayList<>();
+        List<Route> degraded = new ArrayList<>();
+        Route probe = null;
+        for (Route route : routes) {
+            if (!route.provider.isAvailable()) {
+                continue;
+            }
+            if (isHealthy(route)) {
+                healthy.add(route);
+                continue;
+            }
+            long last = route.lastProbe.get();
+            if (probe == null && System.nanoTime() - last >= probeIntervalNanos
+                    && route.lastProbe.compareAndSet(last, System.nanoTime())) {
+                probe = route;
+            } else {
+                degraded.add(route);
+            }
+        }
+        List<Route> plan = new ArrayList<>(routes.size());
+        if (probe != null) {
+            plan.add(probe);
+        }
+        plan.addAll(healthy);
+        plan.addAll(degraded);
+        return plan;
+    }
+
+    private boolean isHealthy(Route route) {
+        if (route.limiter.getQueueDepth() >= maxQueueDepth) {
+            return false;
+        }
+        if (route.stats.count() < MIN_SAMPLES) {
+            return true;
+        }
+        return route.stats.percentile(95) <= maxP95Millis && 1.0 - route.stats.successRate() <= maxErrorRate;
+    }
+
+    private CompletableFuture<LlmResponse> dispatch(List<Route> plan, int index,
+            Function<Route, CompletableFuture<String>> call, Supplier<Boolean> canFallBack) {
+        if (plan.isEmpty()) {
+            return CompletableFuture.failedFuture(new LlmOverloadedException("No AI provider is available.", 30));
+        }
+        Route route = plan.get(index);
+        route.requests.incrementAndGet();
+        long startedAt = System.nanoTime();
+        return route.limiter.submit(() -> call.apply(route))
+                .handle((text, error) -> {
+                    Throwable cause = unwrap(error);
+                    // Shed load says nothing about the provider's own health
+                    if (!(cause instanceof LlmOverloadedException)) {
+                        route.stats.record((System.nanoTime() - startedAt) / 1_000_000, error == null);
+                    }
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(
+                                new LlmResponse(text, route.provider.getName(), route.provider.getModel()));
+                    }
+                    if (index + 1 < plan.size() && canFallBack.get()) {
+                        fallbacks.incrementAndGet();
+                        System.err.println("LLM provider '" + route.provider.getName() + "' failed ("
+                                + cause.getMessage() + "), falling back to '"
+                                + plan.get(index + 1).provider.getName() + "'");
+                        return dispatch(plan, index + 1, call, canFallBack);
+                    }
+                    return CompletableFuture.<LlmResponse>failedFuture(cause);
+                })
+                .thenCompose(future -> future);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
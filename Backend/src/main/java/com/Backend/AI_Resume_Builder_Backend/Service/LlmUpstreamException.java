@@ -0,0 +1,28 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+
+/**
+ * Raised when an LLM provider answers with an HTTP error status.
+ */
+public class LlmUpstreamException extends IOException {
+
+    private final int statusCode;
+
+    public LlmUpstreamException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * True for responses that signal the provider is overloaded (429/503), which
+     * the concurrency limiter treats as a congestion signal.
+     */
+    public boolean isRateLimited() {
+        return statusCode == 429 || statusCode == 503;
+    }
+}
@@ -0,0 +1,119 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link LlmProvider} backed by a local Ollama model through Spring AI.
+ *
+ * The blocking {@link ChatModel#call(String)} runs on a small dedicated pool so a
+ * slow local model never occupies request threads; streaming uses the reactive
+ * API directly.
+ */
+@Service
+public class OllamaLlmProvider implements LlmProvider {
+
+    private final ObjectProvider<ChatModel> chatModelProvider;
+    private final boolean enabled;
+    private final String model;
+    private final long timeoutSeconds;
+    private final ExecutorService executor;
+
+    public OllamaLlmProvider(ObjectProvider<ChatModel> chatModelProvider,
+            @Value("${llm.ollama.enabled:true}") boolean enabled,
+            @Value("${spring.ai.ollama.chat.model:deepseek-r1:1.5b}") String model,
+            @Value("${llm.ollama.timeoutSeconds:120}") long timeoutSeconds,
+            @Value("${llm.ollama.threads:2}") int threads) {
+        this.chatModelProvider = chatModelProvider;
+        this.enabled = enabled;
+        this.model = model;
+        this.timeoutSeconds = timeoutSeconds;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "ollama-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "ollama";
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return enabled && chatModelProvider.getIfAvailable() != null;
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(String prompt) {
+        ChatModel chatModel = chatModelProvider.getIfAvailable();
+        if (!enabled || chatModel == null) {
+            return CompletableFuture.failedFuture(new IOException("Ollama provider is not available"));
+        }
+        return CompletableFuture.supplyAsync(() -> chatModel.call(prompt), executor)
+                .orTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .exceptionallyCompose(OllamaLlmProvider::toIOException);
+    }
+
+    @Override
+    public CompletableFuture<String> streamAsync(String prompt, Consumer<String> onChunk) {
+        ChatModel chatModel = chatModelProvider.getIfAvailable();
+        if (!enabled || chatModel == null) {
+            return CompletableFuture.failedFuture(new IOException("Ollama provider is not available"));
+        }
+        return chatModel.stream(prompt)
+                .doOnNext(chunk -> {
+                    if (chunk != null && !chunk.isEmpty()) {
+                        onChunk.accept(chunk);
+                    }
+                })
+                .reduce(new StringBuilder(), StringBuilder::append)
+                .map(StringBuilder::toString)
+                .defaultIfEmpty("")
+                .toFuture()
+                .orTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .exceptionallyCompose(OllamaLlmProvider::toIOException);
+    }
+
+    private static CompletableFuture<String> toIOException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IOException) {
+            return CompletableFuture.failedFuture(cause);
+        }
+        if (cause instanceof TimeoutException) {
+            return CompletableFuture.failedFuture(new IOException("Ollama call timed out", cause));
+        }
+        return CompletableFuture.failedFuture(new IOException("Ollama call failed: " + cause.getMessage(), cause));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
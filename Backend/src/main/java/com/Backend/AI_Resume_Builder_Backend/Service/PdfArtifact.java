@@ -0,0 +1,19 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.nio.file.Path;
+
+/**
+ * A compiled PDF on disk in the PDF cache, streamed to clients from the file
+ * rather than loaded into memory. {@code id} is the cache key of the source.
+ */
+public record PdfArtifact(String id, Path file, long size, long lastModified) {
+
+    /**
+     * Strong entity tag. Files are replaced by an atomic move and never written
+     * in place, so a recompile of the same source always changes the tag.
+     */
+    public String etag() {
+        return "\"" + id.substring(0, Math.min(32, id.length())) + "-" + Long.toHexString(size) + "-"
+                + Long.toHexString(lastModified) + "\"";
+    }
+}
@@ -0,0 +1,349 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.stereotype.Service;
+
+/**
+ * Renders plain resume layouts straight to PDF with PDFBox, without a TeX
+ * engine. It lays out the same model the LaTeX templates are filled from
+ * ({@link LatexServiceImpl#buildTemplateModel}) and mirrors
+ * {@code ats_template.tex}: letter paper, 1in margins, 10pt Times, bold
+ * upper-case section headings with a rule.
+ *
+ * Uses the standard 14 fonts, which are not embedded, so a render takes
+ * milliseconds and the text stays extractable for applicant tracking systems.
+ * Characters those fonts cannot encode are replaced with '?'.
+ */
+@Service
+public class PdfBoxResumeRenderer {
+
+    /** Part of cache keys; bump when the layout changes. */
+    public static final String VERSION = "pdfbox-ats-1";
+
+    private static final Set<String> TEMPLATES = Set.of("ats");
+
+    private static final PDFont REGULAR = PDType1Font.TIMES_ROMAN;
+    private static final PDFont BOLD = PDType1Font.TIMES_BOLD;
+    private static final float FONT_SIZE = 10f;
+    private static final float NAME_SIZE = 14.4f;
+    private static final float MARGIN = 72f;
+    private static final float PARAGRAPH_SKIP = 6f;
+    private static final float LEADING = 1.2f;
+
+    public boolean supports(String templateType) {
+        return templateType != null && TEMPLATES.contains(templateType.toLowerCase());
+    }
+
+    public void render(Map<String, Object> resumeData, OutputStream out) throws IOException {
+        Map<String, Object> model = LatexServiceImpl.buildTemplateModel(resumeData);
+        try (PDDocument document = new PDDocument()) {
+            String fullName = text(model, "FULL_NAME");
+            document.getDocumentInformation().setTitle(fullName.isBlank() ? "Resume" : fullName + " - Resume");
+            try (Layout layout = new Layout(document)) {
+                renderHeader(layout, model);
+                renderBody(layout, model);
+            }
+            document.save(out);
+        }
+    }
+
+    private void renderHeader(Layout layout, Map<String, Object> model) throws IOException {
+        layout.centered(text(model, "FULL_NAME"), BOLD, NAME_SIZE);
+        layout.skip(PARAGRAPH_SKIP);
+        layout.centered(join(" | ", text(model, "EMAIL"), text(model, "PHONE_NUMBER"), text(model, "LOCATION")),
+                REGULAR, FONT_SIZE);
+        String links = join(" | ", text(model, "LINKEDIN"), text(model, "GITHUB"), text(model, "PORTFOLIO"));
+        if (!links.isEmpty()) {
+            layout.skip(PARAGRAPH_SKIP);
+            layout.centered(links, REGULAR, FONT_SIZE);
+        }
+        layout.skip(10f);
+    }
+
+    private void renderBody(Layout layout, Map<String, Object> model) throws IOException {
+        String summary = text(model, "SUMMARY");
+        if (!summary.isBlank()) {
+            layout.heading("Professional Summary");
+            layout.paragraph(summary, REGULAR);
+        }
+
+        if (has(model, "SKILLS")) {
+            layout.heading("Skills");
+            for (Map<?, ?> skill : entries(model, "SKILLS")) {
+                layout.paragraph(text(skill, "SKILL_TITLE") + ": " + text(skill, "SKILL_LEVEL"), REGULAR);
+            }
+        }
+
+        if (has(model, "EXPERIENCE")) {
+            layout.heading("Professional Experience");
+            for (Map<?, ?> job : entries(model, "EXPERIENCE")) {
+                layout.leftRight(text(job, "JOB_TITLE"), text(job, "DURATION"));
+                layout.paragraph(join(", ", text(job, "COMPANY"), text(job, "LOCATION")), REGULAR);
+                layout.paragraph(text(job, "RESPONSIBILITY"), REGULAR);
+            }
+        }
+
+        if (has(model, "PROJECTS")) {
+            layout.heading("Projects");
+            for (Map<?, ?> project : entries(model, "PROJECTS")) {
+                layout.paragraph(text(project, "PROJECT_TITLE"), BOLD);
+                layout.paragraph(text(project, "PROJECT_DESCRIPTION"), REGULAR);
+                layout.paragraph("Technologies: " + text(project, "TECHNOLOGIES"), REGULAR);
+                String link = text(project, "GITHUB_LINK");
+                if (!link.isBlank()) {
+                    layout.paragraph("GitHub: " + link, REGULAR);
+                }
+            }
+        }
+
+        if (has(model, "EDUCATION")) {
+            layout.heading("Education");
+            for (Map<?, ?> education : entries(model, "EDUCATION")) {
+                layout.leftRight(text(education, "DEGREE"), text(education, "GRADUATION_YEAR"));
+                layout.paragraph(join(", ", text(education, "UNIVERSITY"), text(education, "LOCATION")), REGULAR);
+            }
+        }
+
+        if (has(model, "CERTIFICATIONS")) {
+            layout.heading("Certifications");
+            for (Map<?, ?> cert : entries(model, "CERTIFICATIONS")) {
+                layout.paragraph(text(cert, "CERT_TITLE") + " - " + text(cert, "ISSUING_ORG") + " ("
+                        + text(cert, "CERT_YEAR") + ")", REGULAR);
+            }
+        }
+
+        if (has(model, "ACHIEVEMENTS")) {
+            layout.heading("Achievements");
+            for (Map<?, ?> achievement : entries(model, "ACHIEVEMENTS")) {
+                layout.paragraph(text(achievement, "ACH_TITLE") + " (" + text(achievement, "ACH_YEAR") + ")",
+                        REGULAR);
+            }
+        }
+
+        if (Boolean.TRUE.equals(model.get("HAS_LANGUAGES"))) {
+            layout.heading("Languages");
+            layout.paragraph(text(model, "LANGUAGES_LIST"), REGULAR);
+        }
+    }
+
+    private static String text(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value == null ? "" : value.toString();
+    }
+
+    private static boolean has(Map<String, Object> model, String name) {
+        return Boolean.TRUE.equals(model.get("HAS_" + name));
+    }
+
+    private static List<Map<?, ?>> entries(Map<String, Object> model, String name) {
+        List<Map<?, ?>> entries = new ArrayList<>();
+        if (model.get(name) instanceof Collection<?> items) {
+            for (Object item : items) {
+                if (item instanceof Map<?, ?> map) {
+                    entries.add(map);
+                }
+            }
+        }
+        return entries;
+    }
+
+    // Skips blank parts, like the optional {{#...}} blocks of the template
+    private static String join(String separator, String... parts) {
+        StringBuilder out = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (out.length() > 0) {
+                    out.append(separator);
+                }
+                out.append(part.trim());
+            }
+        }
+        return out.toString();
+    }
+
+    /** Top-to-bottom text flow over as many pages as needed. */
+    private static final class Layout implements AutoCloseable {
+        private final PDDocument document;
+        private final float width = PDRectangle.LETTER.getWidth() - 2 * MARGIN;
+        private PDPageContentStream content;
+        private float y;
+
+        Layout(PDDocument document) throws IOException {
+            this.document = document;
+            newPage();
+        }
+
+        void skip(float points) {
+            y -= points;
+        }
+
+        void centered(String text, PDFont font, float size) throws IOException {
+            for (String line : wrap(sanitize(text, font), font, size)) {
+                float lineWidth = width(line, font, size);
+                show(line, font, size, MARGIN + Math.max(0, (width - lineWidth) / 2));
+            }
+        }
+
+        void heading(String title) throws IOException {
+            // Keep the heading with at least one line of its section
+            ensureSpace(10f + 3 * FONT_SIZE * LEADING);
+            skip(10f);
+            show(title.toUpperCase(), BOLD, FONT_SIZE, MARGIN);
+            y -= 2f;
+            content.setLineWidth(0.4f);
+            content.moveTo(MARGIN, y);
+            content.lineTo(MARGIN + width, y);
+            content.stroke();
+            skip(4f);
+        }
+
+        /** Bold text on the left, regular text flush right, as with \hfill. */
+        void leftRight(String left, String right) throws IOException {
+            String rightText = sanitize(right.trim(), REGULAR);
+            float rightWidth = width(rightText, REGULAR, FONT_SIZE);
+            List<String> lines = wrap(sanitize(left, BOLD), BOLD, FONT_SIZE, width - rightWidth - 12f);
+            ensureSpace(lines.size() * FONT_SIZE * LEADING);
+            for (int i = 0; i < lines.size(); i++) {
+                show(lines.get(i), BOLD, FONT_SIZE, MARGIN);
+                if (i == 0 && !rightText.isEmpty()) {
+                    draw(rightText, REGULAR, FONT_SIZE, MARGIN + width - rightWidth, y);
+                }
+            }
+            skip(PARAGRAPH_SKIP);
+        }
+
+        /** Wrapped text; line breaks in the input start new lines. */
+        void paragraph(String text, PDFont font) throws IOException {
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            for (String line : wrap(sanitize(text, font), font, FONT_SIZE)) {
+                show(line, font, FONT_SIZE, MARGIN);
+            }
+            skip(PARAGRAPH_SKIP);
+        }
+
+        // Moves down one line, starting a new page when it would cross the bottom margin
+        private void show(String line, PDFont font, float size, float x) throws IOException {
+            ensureSpace(size * LEADING);
+            y -= size * LEADING;
+            draw(line, font, size, x, y);
+        }
+
+        private void draw(String line, PDFont font, float size, float x, float baseline) throws IOException {
+            if (line.isEmpty()) {
+                return;
+            }
+            content.beginText();
+            content.setFont(font, size);
+            content.newLineAtOffset(x, baseline);
+            content.showText(line);
+            content.endText();
+        }
+
+        private void ensureSpace(float height) throws IOException {
+            if (y - height < MARGIN) {
+                newPage();
+            }
+        }
+
+        private void newPage() throws IOException {
+            if (content != null) {
+                content.close();
+            }
+            PDPage page = new PDPage(PDRectangle.LETTER);
+            document.addPage(page);
+            content = new PDPageContentStream(document, page);
+            y = PDRectangle.LETTER.getHeight() - MARGIN;
+        }
+
+        private List<String> wrap(String text, PDFont font, float size) throws IOException {
+            return wrap(text, font, size, width);
+        }
+
+        private static List<String> wrap(String text, PDFont font, float size, float maxWidth) throws IOException {
+            List<String> lines = new ArrayList<>();
+            for (String paragraph : text.split("\n", -1)) {
+                StringBuilder line = new StringBuilder();
+                for (String word : paragraph.trim().split(" +")) {
+                    if (word.isEmpty()) {
+                        continue;
+                    }
+                    String candidate = line.length() == 0 ? word : line + " " + word;
+                    if (width(candidate, font, size) <= maxWidth) {
+                        line.setLength(0);
+                        line.append(candidate);
+                        continue;
+                    }
+                    if (line.length() > 0) {
+                        lines.add(line.toString());
+                        line.setLength(0);
+                    }
+                    // A word wider than the line (a long URL) is broken anywhere
+                    while (width(word, font, size) > maxWidth && word.length() > 1) {
+                        int fit = 1;
+                        while (fit < word.length() && width(word.substring(0, fit + 1), font, size) <= maxWidth) {
+                            fit++;
+                        }
+                        lines.add(word.substring(0, fit));
+                        word = word.substring(fit);
+                    }
+                    line.append(word);
+                }
+                lines.add(line.toString());
+            }
+            return lines;
+        }
+
+        private static float width(String text, PDFont font, float size) throws IOException {
+            return font.getStringWidth(text) / 1000f * size;
+        }
+
+        /** Tabs to spaces, other control characters dropped, unencodable characters to '?'. */
+        private static String sanitize(String text, PDFont font) throws IOException {
+            StringBuilder out = new StringBuilder(text.length());
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                i += Character.charCount(codePoint);
+                if (codePoint == '\n') {
+                    out.append('\n');
+                } else if (codePoint == '\t') {
+                    out.append(' ');
+                } else if (codePoint == '\r' || Character.isISOControl(codePoint)) {
+                    continue;
+                } else if (codePoint >= 0x20 && codePoint < 0x7f) {
+                    out.append((char) codePoint);
+                } else {
+                    String character = new String(Character.toChars(codePoint));
+                    try {
+                        font.encode(character);
+                        out.append(character);
+                    } catch (IllegalArgumentException e) {
+                        out.append('?');
+                    }
+                }
+            }
+            return out.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (content != null) {
+                content.close();
+            }
+        }
+    }
+}
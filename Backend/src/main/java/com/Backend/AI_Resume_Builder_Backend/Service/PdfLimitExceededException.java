@@ -0,0 +1,13 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+
+/**
+ * An uploaded PDF is larger, or has more pages, than extraction allows.
+ */
+public class PdfLimitExceededException extends IOException {
+
+    public PdfLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,185 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Low-resolution PNG previews of compiled PDF pages for the live editor.
+ *
+ * Pages are rasterised with PDFBox on a small pool and cached in a
+ * {@link TieredCache} keyed by the PDF's entity tag, page and DPI, so a
+ * preview is rendered once per compiled PDF. The same key gives each image a
+ * strong ETag that can be checked without rendering or reading the cache.
+ * Only the first {@code latex.preview.maxPages} pages are previewed.
+ */
+@Service
+public class PdfPreviewService {
+
+    private static final int MIN_DPI = 24;
+
+    /** A rendered page as PNG bytes; {@code page} is 1-based. */
+    public record PagePreview(byte[] png, String etag, int page, int dpi) {
+    }
+
+    private final TieredCache cache;
+    private final int defaultDpi;
+    private final int maxDpi;
+    private final int maxPages;
+    private final ExecutorService renderers;
+    private final SingleFlight<byte[]> inFlight = new SingleFlight<>("preview", null);
+    private final Timer renderTimer;
+
+    public PdfPreviewService(MeterRegistry meterRegistry,
+            @Value("${latex.preview.defaultDpi:50}") int defaultDpi,
+            @Value("${latex.preview.maxDpi:150}") int maxDpi,
+            @Value("${latex.preview.maxPages:10}") int maxPages,
+            @Value("${latex.preview.threads:0}") int threads,
+            @Value("${latex.preview.memoryMaxBytes:33554432}") long memoryMaxBytes,
+            @Value("${latex.preview.diskDir:}") String diskDir,
+            @Value("${latex.preview.diskMaxBytes:268435456}") long diskMaxBytes) {
+        this.maxDpi = Math.max(MIN_DPI, maxDpi);
+        this.defaultDpi = Math.max(MIN_DPI, Math.min(this.maxDpi, defaultDpi));
+        this.maxPages = Math.max(1, maxPages);
+        this.cache = new TieredCache("latex.preview", memoryMaxBytes, Duration.ZERO,
+                diskDir == null || diskDir.isBlank() ? null : Path.of(diskDir.trim()), diskMaxBytes, meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.renderers = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread thread = new Thread(r, "latex-preview-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.renderTimer = meterRegistry == null ? null
+                : Timer.builder("latex.preview.render").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderers.shutdownNow();
+    }
+
+    /** The requested DPI clamped to the configured range, or the default when absent. */
+    public int resolveDpi(Integer requested) {
+        if (requested == null) {
+            return defaultDpi;
+        }
+        return Math.max(MIN_DPI, Math.min(maxDpi, requested));
+    }
+
+    /** Strong entity tag of a page preview, known before anything is rendered. */
+    public String etag(PdfArtifact pdf, int page, int dpi) {
+        return "\"" + previewKey(pdf, page, dpi).substring(0, 32) + "\"";
+    }
+
+    /**
+     * Number of pages that have previews, at most {@code latex.preview.maxPages}.
+     * Cached with the previews; on a miss the PDF is opened on the render pool.
+     * Read failures complete the future with an {@link UncheckedIOException}.
+     */
+    public CompletableFuture<Integer> pageCount(PdfArtifact pdf) {
+        return totalPages(pdf).thenApply(pages -> Math.min(maxPages, pages));
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    /**
+     * Rendered preview of a 1-based page. Rendering runs on the render pool, so
+     * the caller's thread is never held. The future fails with
+     * {@link IllegalArgumentException} if the page has no preview and with
+     * {@link UncheckedIOException} if the PDF cannot be read.
+     */
+    public CompletableFuture<PagePreview> page(PdfArtifact pdf, int page, int dpi) {
+        return pageCount(pdf).thenCompose(pages -> {
+            if (page < 1 || page > pages) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException(
+                        "Page " + page + " has no preview; previews exist for pages 1-" + pages));
+            }
+            String key = previewKey(pdf, page, dpi);
+            byte[] png = cache.get(key);
+            return png != null
+                    ? CompletableFuture.completedFuture(png)
+                    : inFlight.execute(key,
+                            () -> CompletableFuture.supplyAsync(() -> render(pdf, page, dpi, key), renderers));
+        }).thenApply(png -> new PagePreview(png, etag(pdf, page, dpi), page, dpi));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("defaultDpi", defaultDpi);
+        stats.put("maxDpi", maxDpi);
+        stats.put("maxPages", maxPages);
+        stats.put("cache", cache.stats());
+        return stats;
+    }
+
+    // The PDF's ETag changes with every new compile, so keys never go stale
+    private static String previewKey(PdfArtifact pdf, int page, int dpi) {
+        return ContentHash.sha256Hex(pdf.etag(), Integer.toString(page), Integer.toString(dpi));
+    }
+
+    private CompletableFuture<Integer> totalPages(PdfArtifact pdf) {
+        String key = ContentHash.sha256Hex(pdf.etag(), "pages");
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Integer.parseInt(new String(cached, StandardCharsets.US_ASCII)));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try (PDDocument document = load(pdf)) {
+                int pages = document.getNumberOfPages();
+                cache.put(key, Integer.toString(pages).getBytes(StandardCharsets.US_ASCII));
+                return pages;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, renderers);
+    }
+
+    private byte[] render(PdfArtifact pdf, int page, int dpi, String key) {
+        long start = System.nanoTime();
+        try (PDDocument document = load(pdf)) {
+            BufferedImage image = new PDFRenderer(document).renderImageWithDPI(page - 1, dpi, ImageType.RGB);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            byte[] png = out.toByteArray();
+            cache.put(key, png);
+            return png;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (renderTimer != null) {
+                renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static PDDocument load(PdfArtifact pdf) throws IOException {
+        return PDDocument.load(pdf.file().toFile(), MemoryUsageSetting.setupMainMemoryOnly());
+    }
+}
@@ -0,0 +1,197 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Memory-bounded PDF text extraction.
+ *
+ * Uploads are spooled to a temp file instead of a heap byte array, and PDFBox
+ * buffers at most {@code pdf.extract.mainMemoryBytes} per open document before
+ * spilling to a scratch file. Size and page-count limits are checked before any
+ * text is extracted. Documents longer than {@code pdf.extract.pagesPerTask} are
+ * split into page ranges that are stripped in parallel on a bounded fork-join
+ * pool, each range on its own {@link PDDocument} since PDFBox documents are not
+ * thread-safe.
+ */
+@Service
+public class PdfTextExtractor {
+
+    private final long maxBytes;
+    private final int maxPages;
+    private final int pagesPerTask;
+    private final long mainMemoryBytes;
+    private final long maxScratchBytes;
+    private final File tempDir;
+    private final ForkJoinPool pool;
+
+    public PdfTextExtractor(@Value("${pdf.extract.maxBytes:10485760}") long maxBytes,
+            @Value("${pdf.extract.maxPages:50}") int maxPages,
+            @Value("${pdf.extract.pagesPerTask:8}") int pagesPerTask,
+            @Value("${pdf.extract.mainMemoryBytes:8388608}") long mainMemoryBytes,
+            @Value("${pdf.extract.maxScratchBytes:268435456}") long maxScratchBytes,
+            @Value("${pdf.extract.tempDir:}") String tempDir,
+            @Value("${pdf.extract.parallelism:0}") int parallelism) {
+        this.maxBytes = maxBytes;
+        this.maxPages = maxPages;
+        this.pagesPerTask = Math.max(1, pagesPerTask);
+        this.mainMemoryBytes = mainMemoryBytes;
+        this.maxScratchBytes = maxScratchBytes;
+        this.tempDir = tempDir == null || tempDir.isBlank() ? null : new File(tempDir.trim());
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Copy an upload to a temp file, failing as soon as it exceeds the size
+     * limit, and hash it on the way. The caller deletes the file.
+     */
+    public SpooledPdf spool(MultipartFile file) throws IOException {
+        if (file.getSize() > maxBytes) {
+            throw tooLarge(file.getSize());
+        }
+        Path path = tempDir != null
+                ? Files.createTempFile(tempDir.toPath(), "upload-", ".pdf")
+                : Files.createTempFile("upload-", ".pdf");
+        MessageDigest digest = ContentHash.newDigest();
+        long total = 0;
+        try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(path)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw tooLarge(total);
+                }
+                out.write(buffer, 0, read);
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new SpooledPdf(path, total, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    public String extractText(MultipartFile file) throws IOException {
+        SpooledPdf spooled = spool(file);
+        try {
+            return extractText(spooled.path());
+        } finally {
+            Files.deleteIfExists(spooled.path());
+        }
+    }
+
+    public String extractText(Path pdf) throws IOException {
+        long size = Files.size(pdf);
+        if (size > maxBytes) {
+            throw tooLarge(size);
+        }
+        int pages;
+        try (PDDocument document = load(pdf)) {
+            pages = document.getNumberOfPages();
+            if (pages > maxPages) {
+                throw new PdfLimitExceededException(
+                        "PDF has " + pages + " pages; at most " + maxPages + " are supported");
+            }
+            if (pages <= pagesPerTask) {
+                return strip(document, 1, pages);
+            }
+        }
+        PageRangeTask task = new PageRangeTask(pdf, 1, pages);
+        try {
+            // Already on one of our workers (batch extraction): split in place rather than re-submitting
+            return ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Extract on the extraction pool; the future fails with the
+     * {@link IOException} wrapped in a {@link java.util.concurrent.CompletionException}.
+     */
+    public CompletableFuture<String> extractTextAsync(Path pdf) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return extractText(pdf);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, pool).exceptionallyCompose(error -> CompletableFuture.failedFuture(
+                error.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : error));
+    }
+
+    private PDDocument load(Path pdf) throws IOException {
+        MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(mainMemoryBytes, maxScratchBytes);
+        if (tempDir != null) {
+            memory.setTempDir(tempDir);
+        }
+        return PDDocument.load(pdf.toFile(), memory);
+    }
+
+    private static String strip(PDDocument document, int startPage, int endPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        return stripper.getText(document);
+    }
+
+    private PdfLimitExceededException tooLarge(long size) {
+        return new PdfLimitExceededException(
+                "PDF is " + size + " bytes; at most " + maxBytes + " bytes are supported");
+    }
+
+    private final class PageRangeTask extends RecursiveTask<String> {
+        private final Path pdf;
+        private final int startPage;
+        private final int endPage;
+
+        PageRangeTask(Path pdf, int startPage, int endPage) {
+            this.pdf = pdf;
+            this.startPage = startPage;
+            this.endPage = endPage;
+        }
+
+        @Override
+        protected String compute() {
+            if (endPage - startPage + 1 <= pagesPerTask) {
+                try (PDDocument document = load(pdf)) {
+                    return strip(document, startPage, endPage);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = startPage + (endPage - startPage) / 2;
+            PageRangeTask first = new PageRangeTask(pdf, startPage, middle);
+            PageRangeTask second = new PageRangeTask(pdf, middle + 1, endPage);
+            second.fork();
+            String head = first.compute();
+            return head + second.join();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+
+/**
+ * A prompt file is missing from the classpath or could not be parsed.
+ */
+public class PromptLoadException extends IOException {
+
+    public PromptLoadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,121 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A prompt file parsed once into literal text and {@code {{name}}} placeholders.
+ *
+ * Rendering sizes the output buffer up front and writes every segment exactly
+ * once, instead of copying the whole prompt for each placeholder the way
+ * chained {@link String#replace} calls do. Placeholders without a value are
+ * left in the output unchanged.
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String source;
+    private final String version;
+    // literals[i] precedes placeholders[i]; literals has one more entry than placeholders
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private PromptTemplate(String name, String source, String[] literals, String[] placeholders) {
+        this.name = name;
+        this.source = source;
+        this.version = LlmGatewayService.promptVersion(source);
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static PromptTemplate parse(String name, String source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Template cannot be null");
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, pos);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            String key = source.substring(open + OPEN.length(), close);
+            if (key.isEmpty() || key.indexOf('{') >= 0 || key.indexOf('\n') >= 0) {
+                // Not a placeholder (e.g. nested braces in a JSON example); keep scanning after "{"
+                literals.add(source.substring(pos, open + 1));
+                placeholders.add(null);
+                pos = open + 1;
+                continue;
+            }
+            literals.add(source.substring(pos, open));
+            placeholders.add(key);
+            pos = close + CLOSE.length();
+        }
+        literals.add(source.substring(pos));
+        return new PromptTemplate(name, source, merge(literals, placeholders), compact(placeholders));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /** Content-derived version, see {@link LlmGatewayService#promptVersion(String)}. */
+    public String getVersion() {
+        return version;
+    }
+
+    public String render(Map<String, String> values) {
+        int capacity = literalLength;
+        for (String key : placeholders) {
+            String value = values.get(key);
+            capacity += value != null ? value.length() : key.length() + OPEN.length() + CLOSE.length();
+        }
+        StringBuilder out = new StringBuilder(capacity);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(placeholders[i]);
+            if (value != null) {
+                out.append(value);
+            } else if (!values.containsKey(placeholders[i])) {
+                out.append(OPEN).append(placeholders[i]).append(CLOSE);
+            }
+        }
+        out.append(literals[placeholders.length]);
+        return out.toString();
+    }
+
+    // Join literal runs separated by skipped (null) placeholders
+    private static String[] merge(List<String> literals, List<String> placeholders) {
+        List<String> merged = new ArrayList<>();
+        StringBuilder run = new StringBuilder(literals.get(0));
+        for (int i = 0; i < placeholders.size(); i++) {
+            if (placeholders.get(i) != null) {
+                merged.add(run.toString());
+                run.setLength(0);
+            }
+            run.append(literals.get(i + 1));
+        }
+        merged.add(run.toString());
+        return merged.toArray(new String[0]);
+    }
+
+    private static String[] compact(List<String> placeholders) {
+        return placeholders.stream().filter(p -> p != null).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,80 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Loads prompt files from the classpath once and keeps them parsed as
+ * {@link PromptTemplate}s, so the request path does no resource I/O.
+ *
+ * With {@code prompt.reload.enabled=true} (development) a template whose file
+ * on disk has changed is re-parsed on its next use; this only applies when
+ * resources are served from an exploded directory, not from a jar.
+ */
+@Service
+public class PromptTemplateRegistry {
+
+    private final List<String> preload;
+    private final boolean reloadEnabled;
+    private final Map<String, Entry> templates = new ConcurrentHashMap<>();
+
+    private record Entry(PromptTemplate template, File file, long lastModified) {
+    }
+
+    public PromptTemplateRegistry(
+            @Value("${prompt.templates:resume_prompt.txt,ats_prompt.txt,ats_batch_prompt.txt}") List<String> preload,
+            @Value("${prompt.reload.enabled:false}") boolean reloadEnabled) {
+        this.preload = preload;
+        this.reloadEnabled = reloadEnabled;
+    }
+
+    @PostConstruct
+    public void loadAll() throws IOException {
+        for (String fileName : preload) {
+            if (!fileName.isBlank()) {
+                templates.put(fileName.trim(), load(fileName.trim()));
+            }
+        }
+    }
+
+    public PromptTemplate get(String fileName) throws IOException {
+        Entry entry = templates.get(fileName);
+        if (entry == null || (reloadEnabled && isStale(entry))) {
+            entry = load(fileName);
+            templates.put(fileName, entry);
+        }
+        return entry.template();
+    }
+
+    private static boolean isStale(Entry entry) {
+        return entry.file() != null && entry.file().lastModified() != entry.lastModified();
+    }
+
+    private Entry load(String fileName) throws IOException {
+        try {
+            ClassPathResource resource = new ClassPathResource(fileName);
+            if (!resource.exists()) {
+                throw new IOException("Prompt file not found: " + fileName);
+            }
+            File file = resource.isFile() ? resource.getFile() : null;
+            long lastModified = file != null ? file.lastModified() : 0L;
+            try (InputStream inputStream = resource.getInputStream()) {
+                String source = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+                return new Entry(PromptTemplate.parse(fileName, source), file, lastModified);
+            }
+        } catch (Exception e) {
+            throw new PromptLoadException("Failed to load prompt file: " + fileName, e);
+        }
+    }
+}
@@ -4,6 +4,8 @@ public class ResumeRequest {
     private String userResumeDescription;
     private String templateType;
     private String message;
+    // Ignore any cached AI response and always call the model
+    private boolean bypassCache;
 
     // No-arg constructor required by Jackson for deserialization
     public ResumeRequest() {
@@ -44,6 +46,14 @@ public class ResumeRequest {
         this.message = message;
     }
 
+    public boolean isBypassCache() {
+        return bypassCache;
+    }
+
+    public void setBypassCache(boolean bypassCache) {
+        this.bypassCache = bypassCache;
+    }
+
     @Override
     public String toString() {
         return "ResumeRequest{" +
@@ -2,6 +2,7 @@ package com.Backend.AI_Resume_Builder_Backend.Service;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface ResumeService {
 
@@ -9,4 +10,21 @@ public interface ResumeService {
 
 	Map<String, Object> generateResumeResponse(String userResumeDescription, String templateType) throws IOException;
 
-}
\ No newline at end of file
+	/**
+	 * Non-blocking variant of {@link #generateResumeResponse(String, String)}. The
+	 * returned future completes once Gemini has answered and the response is parsed.
+	 * When {@code bypassCache} is set, a cached answer for the same prompt is ignored.
+	 */
+	CompletableFuture<Map<String, Object>> generateResumeResponseAsync(String userResumeDescription,
+			String templateType, boolean bypassCache);
+
+	/**
+	 * Streaming variant: model output is fed through a {@link StreamingResponseParser}
+	 * so {@code listener} sees reasoning text and each completed top-level section as
+	 * soon as it arrives. The future completes with the same map as the non-streaming
+	 * call.
+	 */
+	CompletableFuture<Map<String, Object>> streamResumeResponse(String userResumeDescription, String templateType,
+			boolean bypassCache, StreamingResponseParser.Listener listener);
+
+}
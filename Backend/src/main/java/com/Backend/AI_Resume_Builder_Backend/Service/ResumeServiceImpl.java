@@ -1,21 +1,27 @@
 package com.Backend.AI_Resume_Builder_Backend.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class ResumeServiceImpl implements ResumeService {
-    private final GeminiService geminiService;
-
-    public ResumeServiceImpl(GeminiService geminiService) {
-        this.geminiService = geminiService;
+    private final LlmGatewayService llmGateway;
+    private final PromptTemplateRegistry prompts;
+    // Double-clicks and client retries share one upstream call and one parsed result
+    private final SingleFlight<Map<String, Object>> inFlightResumes;
+
+    public ResumeServiceImpl(LlmGatewayService llmGateway, PromptTemplateRegistry prompts,
+            MeterRegistry meterRegistry) {
+        this.llmGateway = llmGateway;
+        this.prompts = prompts;
+        this.inFlightResumes = new SingleFlight<>("resume", meterRegistry);
     }
 
     @Override
@@ -25,105 +31,111 @@ public class ResumeServiceImpl implements ResumeService {
 
     public Map<String, Object> generateResumeResponse(String userResumeDescription, String templateType)
             throws IOException {
-        Map<String, Object> result = new HashMap<>();
+        return GeminiService.await(generateResumeResponseAsync(userResumeDescription, templateType, false));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> generateResumeResponseAsync(String userResumeDescription,
+            String templateType, boolean bypassCache) {
         try {
-            // Validate input
-            if (userResumeDescription == null || userResumeDescription.trim().isEmpty()) {
-                throw new IllegalArgumentException("User resume description cannot be null or empty");
-            }
-
-            // Default to "modern" if templateType is null or empty
-            if (templateType == null || templateType.trim().isEmpty()) {
-                templateType = "modern";
-            }
-
-            String promptString = this.loadPromptFromFile("resume_prompt.txt");
-            String promptContent = this.putValueToTemplate(promptString, Map.of(
-                    "userResumeDescription", userResumeDescription,
-                    "templateType", templateType));
-            String response = geminiService.generateContent(promptContent);
-            if (response == null || response.trim().isEmpty()) {
-                result.put("error", "Gemini AI service returned empty response");
-                result.put("details",
-                        "Check Gemini API key, quota, or prompt format. See backend logs for raw response.");
-                return result;
-            }
-            Map<String, Object> stringMap = parseMultipleResponses(response);
-            return stringMap;
+            PromptTemplate template = prompts.get("resume_prompt.txt");
+            String promptContent = buildResumePrompt(template, userResumeDescription, templateType);
+            String promptVersion = template.getVersion();
+            return inFlightResumes.execute(ContentHash.sha256Hex(promptVersion, promptContent),
+                    () -> llmGateway.generate(promptVersion, promptContent, bypassCache,
+                            ResumeServiceImpl::isWellFormed)
+                            .thenApply(this::toResumeResult)
+                            .exceptionally(this::toErrorResult));
         } catch (Exception e) {
-            System.err.println("Error in generateResumeResponse: " + e.getMessage());
-            e.printStackTrace();
-            result.put("error", "Exception in resume generation");
-            result.put("message", e.getMessage());
-            return result;
+            return CompletableFuture.completedFuture(toErrorResult(e));
         }
     }
 
-    String loadPromptFromFile(String fileName) throws IOException {
+    @Override
+    public CompletableFuture<Map<String, Object>> streamResumeResponse(String userResumeDescription,
+            String templateType, boolean bypassCache, StreamingResponseParser.Listener listener) {
         try {
-            ClassPathResource resource = new ClassPathResource(fileName);
-            if (!resource.exists()) {
-                throw new IOException("Prompt file not found: " + fileName);
-            }
-
-            try (InputStream inputStream = resource.getInputStream()) {
-                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            }
+            PromptTemplate template = prompts.get("resume_prompt.txt");
+            String promptContent = buildResumePrompt(template, userResumeDescription, templateType);
+            StreamingResponseParser parser = new StreamingResponseParser(listener);
+            return llmGateway
+                    .stream(template.getVersion(), promptContent, bypassCache, parser::accept,
+                            response -> parser.isComplete())
+                    .thenApply(response -> parser.finish())
+                    .exceptionally(this::toErrorResult);
         } catch (Exception e) {
-            throw new IOException("Failed to load prompt file: " + fileName, e);
+            return CompletableFuture.completedFuture(toErrorResult(e));
         }
     }
 
-    String putValueToTemplate(String template, Map<String, String> values) {
-        if (template == null) {
-            throw new IllegalArgumentException("Template cannot be null");
+    private String buildResumePrompt(PromptTemplate template, String userResumeDescription, String templateType) {
+        // Validate input
+        if (userResumeDescription == null || userResumeDescription.trim().isEmpty()) {
+            throw new IllegalArgumentException("User resume description cannot be null or empty");
         }
 
-        for (Map.Entry<String, String> entry : values.entrySet()) {
-            String placeholder = "{{" + entry.getKey() + "}}";
-            String value = entry.getValue() != null ? entry.getValue() : "";
-            template = template.replace(placeholder, value);
+        // Default to "modern" if templateType is null or empty
+        if (templateType == null || templateType.trim().isEmpty()) {
+            templateType = "modern";
         }
-        return template;
-    }
 
-    public static Map<String, Object> parseMultipleResponses(String response) {
-        Map<String, Object> result = new HashMap<>();
+        return template.render(Map.of(
+                "userResumeDescription", userResumeDescription,
+                "templateType", templateType));
+    }
 
+    private Map<String, Object> toResumeResult(String response) {
         if (response == null || response.trim().isEmpty()) {
-            result.put("think", null);
-            result.put("data", null);
+            Map<String, Object> result = new HashMap<>();
+            result.put("error", "Gemini AI service returned empty response");
+            result.put("details",
+                    "Check Gemini API key, quota, or prompt format. See backend logs for raw response.");
             return result;
         }
+        return parseMultipleResponses(response);
+    }
+
+    private Map<String, Object> toErrorResult(Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (e instanceof LlmOverloadedException overloaded) {
+            // Shed load is not a generation error; let the controller answer 503 + Retry-After
+            throw overloaded;
+        }
+        System.err.println("Error in generateResumeResponse: " + e.getMessage());
+        e.printStackTrace();
+        Map<String, Object> result = new HashMap<>();
+        result.put("error", "Exception in resume generation");
+        result.put("message", e.getMessage());
+        return result;
+    }
 
-        // Parse think section
-        int thinkStart = response.indexOf("<think>");
-        int thinkEnd = response.indexOf("</think>");
-        if (thinkStart != -1 && thinkEnd != -1 && thinkEnd > thinkStart) {
-            String thinkContent = response.substring(thinkStart + 7, thinkEnd).trim();
-            result.put("think", thinkContent);
-        } else {
-            result.put("think", null);
+    // One-off templates; prompt files are parsed once by PromptTemplateRegistry
+    String putValueToTemplate(String template, Map<String, String> values) {
+        if (template == null) {
+            throw new IllegalArgumentException("Template cannot be null");
         }
 
-        // Parse JSON section
-        int jsonStart = response.indexOf("```json");
-        int jsonEnd = response.indexOf("```", jsonStart + 7);
-        if (jsonStart != -1 && jsonEnd != -1 && jsonEnd > jsonStart) {
-            String jsonContent = response.substring(jsonStart + 7, jsonEnd).trim();
-            try {
-                ObjectMapper mapper = new ObjectMapper();
-                Map data = mapper.readValue(jsonContent, Map.class);
-                result.put("data", data);
-            } catch (Exception e) {
-                System.err.println("Invalid JSON format: " + e.getMessage());
-                result.put("data", null);
-                result.put("error", "Failed to parse JSON response");
-            }
-        } else {
+        return PromptTemplate.parse(null, template).render(values);
+    }
+
+    /** Whether {@code response} holds well-formed JSON; only such answers are cached. */
+    static boolean isWellFormed(String response) {
+        StreamingResponseParser parser = new StreamingResponseParser(null);
+        parser.accept(response);
+        return parser.isComplete();
+    }
+
+    public static Map<String, Object> parseMultipleResponses(String response) {
+        if (response == null || response.trim().isEmpty()) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("think", null);
             result.put("data", null);
+            return result;
         }
 
-        return result;
+        // Same single-pass parser as the streaming endpoint, fed the whole response at once
+        StreamingResponseParser parser = new StreamingResponseParser(null);
+        parser.accept(response);
+        return parser.finish();
     }
 }
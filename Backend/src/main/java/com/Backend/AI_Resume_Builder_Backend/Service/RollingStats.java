@@ -0,0 +1,70 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency and success rate over the last {@code capacity} calls. Old samples
+ * fall out of the window, so the numbers follow the current behaviour of a
+ * backend rather than its lifetime average.
+ */
+public class RollingStats {
+
+    private final long[] latencies;
+    private final boolean[] successes;
+    private int next;
+    private int count;
+
+    public RollingStats(int capacity) {
+        this.latencies = new long[Math.max(1, capacity)];
+        this.successes = new boolean[latencies.length];
+    }
+
+    public synchronized void record(long latencyMillis, boolean success) {
+        latencies[next] = latencyMillis;
+        successes[next] = success;
+        next = (next + 1) % latencies.length;
+        if (count < latencies.length) {
+            count++;
+        }
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /** @return the latency percentile in milliseconds, or -1 without samples */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /** @return fraction of successful calls, or 1.0 without samples */
+    public synchronized double successRate() {
+        if (count == 0) {
+            return 1.0;
+        }
+        int ok = 0;
+        for (int i = 0; i < count; i++) {
+            if (successes[i]) {
+                ok++;
+            }
+        }
+        return (double) ok / count;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("samples", count());
+        out.put("p50Millis", percentile(50));
+        out.put("p95Millis", percentile(95));
+        out.put("successRate", successRate());
+        return out;
+    }
+}
@@ -0,0 +1,80 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent calls that share a key: the first caller starts the work,
+ * callers arriving while it is in flight get the same result instead of starting
+ * a duplicate. Once the call completes the key is released, so later calls run
+ * again (and typically hit a cache).
+ */
+public class SingleFlight<V> {
+
+    private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+
+    /**
+     * @param operation tag value identifying the coalesced operation in metrics
+     * @param registry  optional registry for the {@code llm.singleflight.*} meters
+     */
+    public SingleFlight(String operation, MeterRegistry registry) {
+        if (registry != null) {
+            FunctionCounter.builder("llm.singleflight.calls", leaders, AtomicLong::get)
+                    .description("Calls that started upstream work")
+                    .tag("operation", operation).tag("role", "leader")
+                    .register(registry);
+            FunctionCounter.builder("llm.singleflight.calls", collapsed, AtomicLong::get)
+                    .description("Calls that joined an identical in-flight call")
+                    .tag("operation", operation).tag("role", "collapsed")
+                    .register(registry);
+            Gauge.builder("llm.singleflight.inflight", inFlight, Map::size)
+                    .tag("operation", operation)
+                    .register(registry);
+        }
+    }
+
+    public CompletableFuture<V> execute(String key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            collapsed.incrementAndGet();
+            // Hand out a copy so one caller cannot complete or cancel the shared future
+            return existing.copy();
+        }
+        leaders.incrementAndGet();
+
+        CompletableFuture<V> upstream;
+        try {
+            upstream = call.get();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        upstream.whenComplete((value, error) -> {
+            // Release the key before publishing so late arrivals start fresh
+            inFlight.remove(key, promise);
+            if (error != null) {
+                promise.completeExceptionally(error);
+            } else {
+                promise.complete(value);
+            }
+        });
+        return promise.copy();
+    }
+
+    public long getCollapsedCount() {
+        return collapsed.get();
+    }
+
+    public long getLeaderCount() {
+        return leaders.get();
+    }
+}
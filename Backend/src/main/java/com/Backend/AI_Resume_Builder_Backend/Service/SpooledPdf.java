@@ -0,0 +1,10 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.nio.file.Path;
+
+/**
+ * An upload copied to a temp file by {@link PdfTextExtractor#spool}, with the
+ * SHA-256 of its bytes.
+ */
+public record SpooledPdf(Path path, long size, String sha256) {
+}
@@ -0,0 +1,271 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Incremental parser for model responses of the form
+ * {@code <think>...</think> ```json { ... } ```}.
+ *
+ * Text can be fed in arbitrary chunks. Reasoning inside {@code <think>} is
+ * reported as it arrives, and each top-level JSON field (skills, experience, ...)
+ * is reported as soon as its value is complete, without waiting for the rest of
+ * the document. The markdown fence is optional; parsing starts at the first
+ * {@code '{'} outside the think block.
+ */
+public class StreamingResponseParser {
+
+    public interface Listener {
+        void onThink(String delta);
+
+        void onSection(String name, Object value);
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+
+    private enum State {
+        SEEK, THINK, JSON, DONE
+    }
+
+    // Position inside the top-level object
+    private enum Part {
+        EXPECT_KEY, KEY, EXPECT_COLON, EXPECT_VALUE, VALUE
+    }
+
+    private final Listener listener;
+    private final StringBuilder buffer = new StringBuilder();
+    private final Map<String, Object> data = new LinkedHashMap<>();
+
+    private State state = State.SEEK;
+    private int pos;
+
+    private int thinkStart;
+    private int thinkEmitted;
+    private String think;
+
+    private Part part = Part.EXPECT_KEY;
+    private int depth;
+    private boolean inString;
+    private boolean escape;
+    private int keyStart;
+    private int valueStart;
+    private String currentKey;
+    private boolean jsonStarted;
+    private boolean jsonFailed;
+
+    public StreamingResponseParser(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void accept(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        buffer.append(chunk);
+        scan();
+    }
+
+    /** Whether a complete, well-formed JSON object has been read. */
+    public boolean isComplete() {
+        return state == State.DONE && !jsonFailed;
+    }
+
+    /**
+     * Finish parsing and return the same shape as
+     * {@link ResumeServiceImpl#parseMultipleResponses(String)}: {@code think},
+     * {@code data} and, for malformed JSON, {@code error}.
+     */
+    public Map<String, Object> finish() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("think", think);
+        if (state == State.DONE && !jsonFailed) {
+            result.put("data", data);
+        } else {
+            result.put("data", null);
+            if (jsonStarted) {
+                result.put("error", "Failed to parse JSON response");
+            }
+        }
+        return result;
+    }
+
+    private void scan() {
+        while (pos < buffer.length() && state != State.DONE) {
+            switch (state) {
+                case SEEK -> {
+                    if (!seek()) {
+                        return;
+                    }
+                }
+                case THINK -> {
+                    if (!scanThink()) {
+                        return;
+                    }
+                }
+                case JSON -> scanJson();
+                default -> {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** @return false when more input is needed to decide */
+    private boolean seek() {
+        for (; pos < buffer.length(); pos++) {
+            char c = buffer.charAt(pos);
+            if (c == '<') {
+                int available = Math.min(THINK_OPEN.length(), buffer.length() - pos);
+                if (regionMatches(pos, THINK_OPEN, available)) {
+                    if (available < THINK_OPEN.length()) {
+                        return false;
+                    }
+                    if (think == null) {
+                        pos += THINK_OPEN.length();
+                        thinkStart = pos;
+                        thinkEmitted = pos;
+                        state = State.THINK;
+                        return true;
+                    }
+                }
+            } else if (c == '{') {
+                state = State.JSON;
+                jsonStarted = true;
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /** @return false when more input is needed */
+    private boolean scanThink() {
+        int close = buffer.indexOf(THINK_CLOSE, pos);
+        if (close == -1) {
+            // Hold back a possible partial closing tag
+            int safeEnd = Math.max(thinkEmitted, buffer.length() - (THINK_CLOSE.length() - 1));
+            emitThink(safeEnd);
+            pos = safeEnd;
+            return false;
+        }
+        emitThink(close);
+        think = buffer.substring(thinkStart, close).trim();
+        pos = close + THINK_CLOSE.length();
+        state = State.SEEK;
+        return true;
+    }
+
+    private void emitThink(int end) {
+        if (end > thinkEmitted) {
+            if (listener != null) {
+                listener.onThink(buffer.substring(thinkEmitted, end));
+            }
+            thinkEmitted = end;
+        }
+    }
+
+    private void scanJson() {
+        for (; pos < buffer.length(); pos++) {
+            char c = buffer.charAt(pos);
+            if (inString) {
+                if (escape) {
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (depth == 1 && part == Part.KEY) {
+                        currentKey = decodeKey(buffer.substring(keyStart, pos + 1));
+                        part = Part.EXPECT_COLON;
+                    }
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    if (depth == 1 && part == Part.EXPECT_KEY) {
+                        keyStart = pos;
+                        part = Part.KEY;
+                    } else {
+                        startValue();
+                    }
+                }
+                case '{', '[' -> {
+                    startValue();
+                    depth++;
+                }
+                case '}', ']' -> {
+                    depth--;
+                    if (depth == 0) {
+                        if (part == Part.VALUE) {
+                            emitSection(pos);
+                        }
+                        pos++;
+                        state = State.DONE;
+                        return;
+                    }
+                }
+                case ':' -> {
+                    if (depth == 1 && part == Part.EXPECT_COLON) {
+                        part = Part.EXPECT_VALUE;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 1 && part == Part.VALUE) {
+                        emitSection(pos);
+                        part = Part.EXPECT_KEY;
+                    }
+                }
+                default -> {
+                    if (!Character.isWhitespace(c)) {
+                        startValue();
+                    }
+                }
+            }
+        }
+    }
+
+    private void startValue() {
+        if (depth == 1 && part == Part.EXPECT_VALUE) {
+            valueStart = pos;
+            part = Part.VALUE;
+        }
+    }
+
+    private void emitSection(int end) {
+        String raw = buffer.substring(valueStart, end).trim();
+        try {
+            Object value = MAPPER.readValue(raw, Object.class);
+            data.put(currentKey, value);
+            if (listener != null) {
+                listener.onSection(currentKey, value);
+            }
+        } catch (Exception e) {
+            System.err.println("Invalid JSON format in field '" + currentKey + "': " + e.getMessage());
+            jsonFailed = true;
+        }
+    }
+
+    private String decodeKey(String quoted) {
+        try {
+            return MAPPER.readValue(quoted, String.class);
+        } catch (Exception e) {
+            jsonFailed = true;
+            return quoted.substring(1, quoted.length() - 1);
+        }
+    }
+
+    private boolean regionMatches(int start, String token, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.charAt(start + i) != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,375 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two-tier byte cache for content-addressed entries.
+ *
+ * The memory tier is a Caffeine (W-TinyLFU) cache bounded by total bytes. The
+ * optional disk tier keeps one file per key in {@code diskDir}, survives restarts
+ * and is bounded by total bytes with LRU eviction. Both tiers honour the TTL,
+ * counted from when the value was first written: an entry promoted from disk
+ * to memory keeps its file's write time rather than starting a fresh TTL.
+ * Keys must be file-name safe; callers pass hex digests from {@link ContentHash}.
+ *
+ * Large entries that are streamed to clients can bypass the heap with
+ * {@link #putFile} and {@link #getFile}, which use the disk tier only.
+ */
+public class TieredCache {
+
+    private static final Pattern SAFE_KEY = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final String name;
+    private final Duration ttl;
+    private final Cache<String, Entry> memory;
+    private final Path diskDir;
+    private final long maxDiskBytes;
+
+    // Access-ordered index of disk entries (key -> size); guarded by itself
+    private final LinkedHashMap<String, Long> diskIndex = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicLong memoryEvictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    /** A value with the wall-clock time it was written, which its TTL counts from. */
+    private record Entry(byte[] value, long writtenAtMillis) {
+    }
+
+    /**
+     * @param name           metric prefix, e.g. {@code llm.cache}
+     * @param maxMemoryBytes upper bound on bytes held in heap
+     * @param ttl            entry lifetime; {@code null} or zero disables expiry
+     * @param diskDir        directory for the disk tier; {@code null} disables it
+     * @param maxDiskBytes   upper bound on bytes held on disk
+     * @param registry       optional registry for hit/miss/eviction meters
+     */
+    public TieredCache(String name, long maxMemoryBytes, Duration ttl, Path diskDir, long maxDiskBytes,
+            MeterRegistry registry) {
+        this.name = name;
+        this.ttl = ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+        this.maxDiskBytes = maxDiskBytes;
+
+        Caffeine<String, Entry> builder = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, maxMemoryBytes))
+                .weigher((String key, Entry entry) -> key.length() + entry.value().length)
+                .evictionListener((String key, Entry entry, RemovalCause cause) -> memoryEvictions.incrementAndGet());
+        if (this.ttl != null) {
+            builder.expireAfter(Expiry.writing((String key, Entry entry) -> remainingTtl(entry.writtenAtMillis())));
+        }
+        this.memory = builder.build();
+
+        Path dir = null;
+        if (diskDir != null) {
+            try {
+                Files.createDirectories(diskDir);
+                dir = diskDir;
+                loadDiskIndex(dir);
+            } catch (IOException e) {
+                System.err.println("Cache '" + name + "': disk tier disabled, cannot use " + diskDir + ": "
+                        + e.getMessage());
+                dir = null;
+            }
+        }
+        this.diskDir = dir;
+
+        if (registry != null) {
+            bindMetrics(registry);
+        }
+    }
+
+    public byte[] get(String key) {
+        checkKey(key);
+        Entry entry = memory.getIfPresent(key);
+        if (entry != null) {
+            memoryHits.incrementAndGet();
+            bytesServed.addAndGet(entry.value().length);
+            return entry.value();
+        }
+        entry = readFromDisk(key);
+        if (entry != null) {
+            diskHits.incrementAndGet();
+            bytesServed.addAndGet(entry.value().length);
+            memory.put(key, entry);
+            return entry.value();
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String key, byte[] value) {
+        checkKey(key);
+        if (value == null) {
+            return;
+        }
+        memory.put(key, new Entry(value, System.currentTimeMillis()));
+        writeToDisk(key, value);
+    }
+
+    /**
+     * Disk-tier lookup that hands out the file instead of loading it.
+     *
+     * @return the stored file, or {@code null} if absent, expired or there is
+     *         no disk tier
+     */
+    public Path getFile(String key) {
+        checkKey(key);
+        Long size = null;
+        if (diskDir != null) {
+            synchronized (diskIndex) {
+                size = diskIndex.get(key);
+            }
+        }
+        Path file = size == null ? null : diskDir.resolve(key);
+        try {
+            if (file != null && ttl != null && isExpired(Files.getLastModifiedTime(file))) {
+                removeFromDisk(key);
+                file = null;
+            }
+        } catch (IOException e) {
+            removeFromDisk(key);
+            file = null;
+        }
+        if (file == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        diskHits.incrementAndGet();
+        bytesServed.addAndGet(size);
+        return file;
+    }
+
+    /**
+     * Move {@code source} into the disk tier under {@code key} without reading
+     * it into memory.
+     *
+     * @return the stored file, or {@code null} if there is no disk tier
+     */
+    public Path putFile(String key, Path source) throws IOException {
+        checkKey(key);
+        if (diskDir == null) {
+            return null;
+        }
+        long size = Files.size(source);
+        Path target = diskDir.resolve(key);
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Different file system: copy next to the target first so readers never see a partial file
+            Path temp = Files.createTempFile(diskDir, key, ".tmp");
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(source);
+        }
+        memory.invalidate(key);
+        index(key, size);
+        return target;
+    }
+
+    public void invalidate(String key) {
+        checkKey(key);
+        memory.invalidate(key);
+        if (diskDir != null) {
+            removeFromDisk(key);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", hitRatio());
+        stats.put("bytesServed", bytesServed.get());
+        stats.put("memoryEvictions", memoryEvictions.get());
+        stats.put("diskEvictions", diskEvictions.get());
+        stats.put("memoryEntries", memory.estimatedSize());
+        stats.put("diskEnabled", diskDir != null);
+        synchronized (diskIndex) {
+            stats.put("diskEntries", diskIndex.size());
+            stats.put("diskBytes", diskBytes);
+        }
+        return stats;
+    }
+
+    /** @return fraction of lookups answered by either tier, or 0 before any lookup */
+    public double hitRatio() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private Entry readFromDisk(String key) {
+        if (diskDir == null) {
+            return null;
+        }
+        synchronized (diskIndex) {
+            // get() also moves the key to the most-recently-used end
+            if (diskIndex.get(key) == null) {
+                return null;
+            }
+        }
+        Path file = diskDir.resolve(key);
+        try {
+            FileTime writtenAt = Files.getLastModifiedTime(file);
+            if (ttl != null && isExpired(writtenAt)) {
+                removeFromDisk(key);
+                return null;
+            }
+            return new Entry(Files.readAllBytes(file), writtenAt.toMillis());
+        } catch (IOException e) {
+            removeFromDisk(key);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, byte[] value) {
+        if (diskDir == null || value.length > maxDiskBytes) {
+            return;
+        }
+        Path target = diskDir.resolve(key);
+        try {
+            Path temp = Files.createTempFile(diskDir, key, ".tmp");
+            Files.write(temp, value);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Cache '" + name + "': failed to write disk entry: " + e.getMessage());
+            return;
+        }
+        index(key, value.length);
+    }
+
+    // Record a disk entry and evict least recently used ones beyond the size bound
+    private void index(String key, long size) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (diskIndex) {
+            Long previous = diskIndex.put(key, size);
+            diskBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> it = diskIndex.entrySet().iterator();
+            while (diskBytes > maxDiskBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                diskBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+        for (String evictedKey : evicted) {
+            diskEvictions.incrementAndGet();
+            deleteQuietly(diskDir.resolve(evictedKey));
+        }
+    }
+
+    private void removeFromDisk(String key) {
+        synchronized (diskIndex) {
+            Long size = diskIndex.remove(key);
+            if (size != null) {
+                diskBytes -= size;
+            }
+        }
+        deleteQuietly(diskDir.resolve(key));
+    }
+
+    /**
+     * Rebuild the index from files left by a previous run, oldest first so that
+     * LRU order approximates the last write time.
+     */
+    private void loadDiskIndex(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(Files::isRegularFile).toList();
+        }
+        List<Map.Entry<Path, FileTime>> byTime = new ArrayList<>();
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            if (fileName.endsWith(".tmp")) {
+                deleteQuietly(file);
+                continue;
+            }
+            byTime.add(Map.entry(file, Files.getLastModifiedTime(file)));
+        }
+        byTime.sort(Map.Entry.comparingByValue());
+        synchronized (diskIndex) {
+            for (Map.Entry<Path, FileTime> entry : byTime) {
+                if (ttl != null && isExpired(entry.getValue())) {
+                    deleteQuietly(entry.getKey());
+                    continue;
+                }
+                long size = Files.size(entry.getKey());
+                diskIndex.put(entry.getKey().getFileName().toString(), size);
+                diskBytes += size;
+            }
+        }
+    }
+
+    private boolean isExpired(FileTime writtenAt) {
+        return writtenAt.toMillis() + ttl.toMillis() < System.currentTimeMillis();
+    }
+
+    private Duration remainingTtl(long writtenAtMillis) {
+        return Duration.ofMillis(Math.max(0, writtenAtMillis + ttl.toMillis() - System.currentTimeMillis()));
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        FunctionCounter.builder(name + ".hits", memoryHits, AtomicLong::get).tag("tier", "memory")
+                .register(registry);
+        FunctionCounter.builder(name + ".hits", diskHits, AtomicLong::get).tag("tier", "disk")
+                .register(registry);
+        FunctionCounter.builder(name + ".misses", misses, AtomicLong::get).register(registry);
+        FunctionCounter.builder(name + ".served", bytesServed, AtomicLong::get).baseUnit("bytes")
+                .description("Bytes returned from cache hits").register(registry);
+        Gauge.builder(name + ".hit.ratio", this, TieredCache::hitRatio).register(registry);
+        FunctionCounter.builder(name + ".evictions", memoryEvictions, AtomicLong::get).tag("tier", "memory")
+                .register(registry);
+        FunctionCounter.builder(name + ".evictions", diskEvictions, AtomicLong::get).tag("tier", "disk")
+                .register(registry);
+        Gauge.builder(name + ".entries", memory, Cache::estimatedSize).tag("tier", "memory").register(registry);
+        Gauge.builder(name + ".bytes", this, cache -> {
+            synchronized (cache.diskIndex) {
+                return cache.diskBytes;
+            }
+        }).tag("tier", "disk").register(registry);
+    }
+
+    private static void checkKey(String key) {
+        if (key == null || !SAFE_KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid cache key: " + key);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+/**
+ * Raised when an incremental render refers to a render id that was never
+ * issued or has expired. Controllers map it to {@code 409 Conflict} so the
+ * client resends the full resume data.
+ */
+public class UnknownRenderException extends RuntimeException {
+
+    public UnknownRenderException(String renderId) {
+        super("Unknown or expired render '" + renderId + "'; send the full resume data instead");
+    }
+}
@@ -0,0 +1,40 @@
+package com.Backend.AI_Resume_Builder_Backend.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class PdfResponsesTest {
+
+	@Test
+	void closedAndOpenRanges() {
+		assertArrayEquals(new long[] { 0, 99 }, PdfResponses.parseRange("bytes=0-99", 1000));
+		assertArrayEquals(new long[] { 500, 999 }, PdfResponses.parseRange("bytes=500-", 1000));
+		// An end past the file is clamped
+		assertArrayEquals(new long[] { 900, 999 }, PdfResponses.parseRange("bytes=900-5000", 1000));
+	}
+
+	@Test
+	void suffixRanges() {
+		assertArrayEquals(new long[] { 900, 999 }, PdfResponses.parseRange("bytes=-100", 1000));
+		assertArrayEquals(new long[] { 0, 999 }, PdfResponses.parseRange("bytes=-5000", 1000));
+		assertSame(PdfResponses.UNSATISFIABLE, PdfResponses.parseRange("bytes=-0", 1000));
+	}
+
+	@Test
+	void rangesStartingPastTheEndAreUnsatisfiable() {
+		assertSame(PdfResponses.UNSATISFIABLE, PdfResponses.parseRange("bytes=1000-", 1000));
+		assertSame(PdfResponses.UNSATISFIABLE, PdfResponses.parseRange("bytes=2000-3000", 1000));
+	}
+
+	@Test
+	void malformedOrMultipleRangesAreIgnored() {
+		assertNull(PdfResponses.parseRange("items=0-10", 1000));
+		assertNull(PdfResponses.parseRange("bytes=0-10,20-30", 1000));
+		assertNull(PdfResponses.parseRange("bytes=abc-", 1000));
+		assertNull(PdfResponses.parseRange("bytes=10", 1000));
+		assertNull(PdfResponses.parseRange("bytes=50-10", 1000));
+	}
+}
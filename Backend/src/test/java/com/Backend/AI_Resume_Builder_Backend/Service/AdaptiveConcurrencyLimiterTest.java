@@ -0,0 +1,135 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxLimit, int maxQueue,
+			Duration maxQueueWait, double latencyTolerance) {
+		return new AdaptiveConcurrencyLimiter("test.limiter", initialLimit, 1, maxLimit, maxQueue, maxQueueWait,
+				latencyTolerance, null);
+	}
+
+	/** Submit a call whose upstream future the test completes. */
+	private static CompletableFuture<String> submit(AdaptiveConcurrencyLimiter limiter,
+			CompletableFuture<String> upstream) {
+		return limiter.submit(() -> upstream);
+	}
+
+	@Test
+	void rateLimitsAndTimeoutsHalveTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = limiter(8, 16, 0, Duration.ofMinutes(1), 1000);
+
+		CompletableFuture<String> rateLimited = new CompletableFuture<>();
+		submit(limiter, rateLimited);
+		rateLimited.completeExceptionally(new LlmUpstreamException(429, "Too Many Requests"));
+		assertEquals(4, limiter.getLimit());
+
+		CompletableFuture<String> timedOut = new CompletableFuture<>();
+		submit(limiter, timedOut);
+		timedOut.completeExceptionally(new TimeoutException());
+		assertEquals(2, limiter.getLimit());
+
+		// Other failures say nothing about congestion
+		CompletableFuture<String> failed = new CompletableFuture<>();
+		submit(limiter, failed);
+		failed.completeExceptionally(new LlmUpstreamException(500, "Internal Server Error"));
+		assertEquals(2, limiter.getLimit());
+
+		for (int i = 0; i < 2; i++) {
+			submit(limiter, CompletableFuture.failedFuture(new LlmUpstreamException(503, "Service Unavailable")));
+		}
+		assertEquals(1, limiter.getLimit());
+		assertEquals(4L, limiter.stats().get("congestionSignals"));
+	}
+
+	@Test
+	void successesGrowTheLimitByAboutOnePerWindow() {
+		AdaptiveConcurrencyLimiter limiter = limiter(2, 3, 0, Duration.ofMinutes(1), 1000);
+
+		// 2 + 1/2 + 1/2.5 + 1/2.9
+		for (int i = 0; i < 3; i++) {
+			submit(limiter, CompletableFuture.completedFuture("ok"));
+		}
+		assertEquals(3, limiter.getLimit());
+
+		for (int i = 0; i < 10; i++) {
+			submit(limiter, CompletableFuture.completedFuture("ok"));
+		}
+		assertEquals(3, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+		assertEquals(0L, limiter.stats().get("congestionSignals"));
+	}
+
+	@Test
+	void callsFarSlowerThanAverageBackOffGently() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = limiter(10, 20, 0, Duration.ofMinutes(1), 2);
+		submit(limiter, CompletableFuture.completedFuture("fast"));
+		assertEquals(10, limiter.getLimit());
+
+		CompletableFuture<String> slow = new CompletableFuture<>();
+		submit(limiter, slow);
+		Thread.sleep(50);
+		slow.complete("slow");
+
+		// 10.1 * 0.9
+		assertEquals(9, limiter.getLimit());
+		assertEquals(1L, limiter.stats().get("congestionSignals"));
+	}
+
+	@Test
+	void queuedCallStartsWhenASlotFrees() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, Duration.ofMinutes(1), 1000);
+		CompletableFuture<String> first = new CompletableFuture<>();
+		submit(limiter, first);
+
+		CompletableFuture<String> queued = submit(limiter, CompletableFuture.completedFuture("queued"));
+		assertEquals(1, limiter.getQueueDepth());
+		assertFalse(queued.isDone());
+
+		first.complete("first");
+		assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+		assertEquals(0, limiter.getQueueDepth());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void callsAreShedWhenTheQueueIsFullOrTheWaitExpires() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, Duration.ofMillis(50), 1000);
+		CompletableFuture<String> held = new CompletableFuture<>();
+		submit(limiter, held);
+
+		AtomicBoolean queuedStarted = new AtomicBoolean();
+		CompletableFuture<String> queued = limiter.submit(() -> {
+			queuedStarted.set(true);
+			return CompletableFuture.completedFuture("queued");
+		});
+		CompletableFuture<String> shed = submit(limiter, CompletableFuture.completedFuture("shed"));
+
+		ExecutionException full = assertThrows(ExecutionException.class, shed::get);
+		LlmOverloadedException overloaded = assertInstanceOf(LlmOverloadedException.class, full.getCause());
+		assertTrue(overloaded.getRetryAfterSeconds() >= 1);
+
+		ExecutionException expired = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(LlmOverloadedException.class, expired.getCause());
+		assertEquals(0, limiter.getQueueDepth());
+		assertEquals(2L, limiter.stats().get("rejected"));
+
+		held.complete("held");
+		assertFalse(queuedStarted.get());
+		assertEquals(0, limiter.getInFlight());
+	}
+}
@@ -0,0 +1,111 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+class AtsScoreServiceImplTest {
+
+	private static final Pattern RESUME_ID = Pattern.compile("=== RESUME (r\\d+) ===");
+
+	/** A batch call held open by the test, with the ids of the resumes in its pack. */
+	private record Call(List<String> ids, Consumer<String> onChunk, CompletableFuture<String> result) {
+
+		void answer() {
+			StringBuilder json = new StringBuilder("{");
+			for (String id : ids) {
+				json.append(json.length() > 1 ? "," : "").append('"').append(id).append("\": {\"atsScore\": \"80%\"}");
+			}
+			String response = json.append('}').toString();
+			onChunk.accept(response);
+			result.complete(response);
+		}
+	}
+
+	@Test
+	void everyFileIsReportedBeforeTheBatchCompletes() throws Exception {
+		int files = 5;
+		List<MultipartFile> uploads = new ArrayList<>();
+		List<CompletableFuture<String>> extractions = new ArrayList<>();
+		PdfTextExtractor extractor = mock(PdfTextExtractor.class);
+		for (int i = 0; i < files; i++) {
+			MultipartFile upload = new MockMultipartFile("files", "resume" + i + ".pdf", "application/pdf",
+					new byte[] { 1 });
+			uploads.add(upload);
+			Path path = Path.of("missing-upload-" + i + ".pdf");
+			CompletableFuture<String> extraction = new CompletableFuture<>();
+			extractions.add(extraction);
+			when(extractor.spool(upload)).thenReturn(new SpooledPdf(path, 1, "hash" + i));
+			when(extractor.extractTextAsync(path)).thenReturn(extraction);
+		}
+
+		List<Call> calls = new ArrayList<>();
+		LlmGatewayService gateway = mock(LlmGatewayService.class);
+		when(gateway.stream(anyString(), anyString(), anyBoolean(), any(), any())).thenAnswer(invocation -> {
+			List<String> ids = new ArrayList<>();
+			Matcher matcher = RESUME_ID.matcher(invocation.<String>getArgument(1));
+			while (matcher.find()) {
+				ids.add(matcher.group(1));
+			}
+			Call call = new Call(ids, invocation.<Consumer<String>>getArgument(3), new CompletableFuture<>());
+			calls.add(call);
+			return call.result();
+		});
+
+		PromptTemplateRegistry prompts = new PromptTemplateRegistry(List.of("ats_prompt.txt", "ats_batch_prompt.txt"),
+				false);
+		prompts.loadAll();
+		AtsScoreServiceImpl service = new AtsScoreServiceImpl(gateway, prompts, extractor,
+				mock(AtsResultCache.class), null, 50, 2, 40000);
+
+		Map<Integer, Map<String, Object>> results = new ConcurrentHashMap<>();
+		CompletableFuture<Map<String, Object>> done = service.scoreBatchAsync(uploads, "Java developer", true,
+				(index, fileName, result) -> {
+					assertFalse(results.containsKey(index), "reported twice: " + index);
+					results.put(index, result);
+				});
+
+		// Extractions finish out of order and one fails: packs are [r4, r3] and [r1, r0]
+		extractions.get(4).complete("resume four");
+		extractions.get(3).complete("resume three");
+		extractions.get(1).complete("resume one");
+		extractions.get(0).complete("resume zero");
+		extractions.get(2).completeExceptionally(new IOException("corrupt PDF"));
+		assertEquals(2, calls.size());
+		assertEquals(List.of("r4", "r3"), calls.get(0).ids());
+		assertFalse(done.isDone());
+
+		// The later pack is answered first
+		calls.get(1).answer();
+		assertFalse(done.isDone());
+		calls.get(0).answer();
+
+		assertTrue(done.isDone());
+		assertEquals(Map.of("files", 5, "failed", 1, "llmCalls", 2), done.get());
+		assertEquals(files, results.size());
+		assertEquals("Failed to read PDF", results.get(2).get("error"));
+		for (int i : new int[] { 0, 1, 3, 4 }) {
+			assertEquals(Map.of("atsScore", "80%"), results.get(i).get("data"));
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.Backend.AI_Resume_Builder_Backend.Service.CompileScheduler.Priority;
+
+class CompileSchedulerTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final List<String> started = new CopyOnWriteArrayList<>();
+	private CompileScheduler scheduler;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		scheduler.shutdown();
+	}
+
+	/** Work that records its start and then holds its worker until the test releases it. */
+	private Callable<PdfArtifact> held(String id) {
+		return () -> {
+			started.add(id);
+			release.await();
+			return new PdfArtifact(id, Path.of(id + ".pdf"), 1, 0);
+		};
+	}
+
+	private Callable<PdfArtifact> quick(String id) {
+		return () -> {
+			started.add(id);
+			return new PdfArtifact(id, Path.of(id + ".pdf"), 1, 0);
+		};
+	}
+
+	@Test
+	void newPreviewFromTheSameClientReplacesTheQueuedOne() throws Exception {
+		scheduler = new CompileScheduler(1, 4, Duration.ofMinutes(1), null);
+		scheduler.submit(held("busy"), Priority.DOWNLOAD, null);
+
+		CompletableFuture<PdfArtifact> first = scheduler.submit(quick("first"), Priority.PREVIEW, "alice");
+		CompletableFuture<PdfArtifact> other = scheduler.submit(quick("other"), Priority.PREVIEW, "bob");
+		CompletableFuture<PdfArtifact> second = scheduler.submit(quick("second"), Priority.PREVIEW, "alice");
+
+		assertTrue(first.isCancelled());
+		assertEquals(2, scheduler.getQueueDepth(Priority.PREVIEW));
+		assertEquals(1L, scheduler.stats().get("superseded"));
+
+		release.countDown();
+		assertEquals("other", other.get(5, TimeUnit.SECONDS).id());
+		assertEquals("second", second.get(5, TimeUnit.SECONDS).id());
+		assertFalse(started.contains("first"));
+	}
+
+	@Test
+	void queuedPreviewsStartBeforeQueuedDownloads() throws Exception {
+		scheduler = new CompileScheduler(1, 4, Duration.ofMinutes(1), null);
+		scheduler.submit(held("busy"), Priority.PREVIEW, "alice");
+
+		CompletableFuture<PdfArtifact> download = scheduler.submit(quick("download"), Priority.DOWNLOAD, "alice");
+		scheduler.submit(quick("preview-alice"), Priority.PREVIEW, "alice");
+		scheduler.submit(quick("preview-bob"), Priority.PREVIEW, "bob");
+		assertEquals(1, scheduler.getQueueDepth(Priority.DOWNLOAD));
+		assertEquals(2, scheduler.getQueueDepth(Priority.PREVIEW));
+
+		release.countDown();
+		download.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("busy", "preview-alice", "preview-bob", "download"), started);
+	}
+
+	@Test
+	void fullQueueIsRejectedWithRetryAfter() {
+		scheduler = new CompileScheduler(1, 1, Duration.ofMinutes(1), null);
+		scheduler.submit(held("busy"), Priority.DOWNLOAD, null);
+		scheduler.submit(quick("queued"), Priority.DOWNLOAD, null);
+
+		CompletableFuture<PdfArtifact> shed = scheduler.submit(quick("shed"), Priority.DOWNLOAD, null);
+
+		ExecutionException e = assertThrows(ExecutionException.class, shed::get);
+		CompileOverloadedException overloaded = assertInstanceOf(CompileOverloadedException.class, e.getCause());
+		assertTrue(overloaded.getRetryAfterSeconds() >= 1);
+		assertEquals(1L, scheduler.stats().get("rejected"));
+		assertEquals(1, scheduler.getQueueDepth(Priority.DOWNLOAD));
+	}
+
+	@Test
+	void queuedJobExpiresAfterMaxQueueWait() throws Exception {
+		scheduler = new CompileScheduler(1, 4, Duration.ofMillis(50), null);
+		CompletableFuture<PdfArtifact> busy = scheduler.submit(held("busy"), Priority.DOWNLOAD, null);
+
+		CompletableFuture<PdfArtifact> waiting = scheduler.submit(quick("waiting"), Priority.PREVIEW, "alice");
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(CompileOverloadedException.class, e.getCause());
+		assertEquals(0, scheduler.getQueueDepth(Priority.PREVIEW));
+		assertEquals(1L, scheduler.stats().get("rejected"));
+
+		release.countDown();
+		busy.get(5, TimeUnit.SECONDS);
+		assertEquals(List.of("busy"), started);
+	}
+}
@@ -0,0 +1,57 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalLatexRendererTest {
+
+	private LatexServiceImpl latexService;
+	private IncrementalLatexRenderer renderer;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		LatexTemplateRegistry registry = new LatexTemplateRegistry(false, "");
+		registry.loadAll();
+		latexService = new LatexServiceImpl(registry);
+		renderer = new IncrementalLatexRenderer(registry, null, 10, 10);
+	}
+
+	private static Map<String, Object> resume() {
+		Map<String, Object> resume = new LinkedHashMap<>();
+		resume.put("personalInformation", Map.of("fullName", "Ada Lovelace", "email", "ada@example.com"));
+		resume.put("summary", "Analyst & mathematician");
+		resume.put("experience", List.of(
+				Map.of("jobTitle", "Analyst", "company", "Engines Ltd", "responsibility", "Wrote notes"),
+				Map.of("jobTitle", "Tutor", "company", "Home", "responsibility", "Taught 100% of classes")));
+		resume.put("skills", List.of(Map.of("title", "Mathematics", "level", "Expert")));
+		return resume;
+	}
+
+	@Test
+	void patchedRenderMatchesAFullRenderAndReusesUntouchedFragments() throws Exception {
+		IncrementalLatexRenderer.Result first = renderer.render(resume(), "professional");
+		assertEquals(latexService.generateLatexCode(resume(), "professional"), first.latexCode());
+
+		List<Map<String, Object>> patch = List.of(
+				Map.of("op", "replace", "path", "/experience/1/responsibility", "value", "Taught_C#"));
+		IncrementalLatexRenderer.Result second = renderer.patch(first.renderId(), patch, null);
+
+		Map<String, Object> expected = JsonPatch.apply(resume(), patch);
+		assertEquals(latexService.generateLatexCode(expected, "professional"), second.latexCode());
+		assertTrue(second.renderedFragments() >= 1);
+		assertTrue(second.reusedFragments() > second.renderedFragments());
+	}
+
+	@Test
+	void unknownRenderIdIsRejected() {
+		assertThrows(UnknownRenderException.class, () -> renderer.patch("missing", List.of(), null));
+	}
+}
@@ -0,0 +1,123 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class JsonPatchTest {
+
+	private static Map<String, Object> op(String op, String path, Object... rest) {
+		Map<String, Object> operation = new LinkedHashMap<>();
+		operation.put("op", op);
+		operation.put("path", path);
+		for (int i = 0; i < rest.length; i += 2) {
+			operation.put((String) rest[i], rest[i + 1]);
+		}
+		return operation;
+	}
+
+	private static Map<String, Object> document() {
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("summary", "Engineer");
+		document.put("skills", new ArrayList<>(List.of("Java", "SQL")));
+		document.put("a/b", 1);
+		document.put("c~d", 2);
+		return document;
+	}
+
+	@Test
+	void addReplaceRemoveLeaveTheInputUntouched() {
+		Map<String, Object> input = document();
+		Map<String, Object> result = JsonPatch.apply(input, List.of(
+				op("add", "/skills/1", "value", "Go"),
+				op("replace", "/summary", "value", "Lead engineer"),
+				op("remove", "/skills/0")));
+		assertEquals(List.of("Go", "SQL"), result.get("skills"));
+		assertEquals("Lead engineer", result.get("summary"));
+		assertEquals(document(), input);
+	}
+
+	@Test
+	void dashAppendsToAnArray() {
+		Map<String, Object> result = JsonPatch.apply(document(), List.of(op("add", "/skills/-", "value", "Go")));
+		assertEquals(List.of("Java", "SQL", "Go"), result.get("skills"));
+	}
+
+	@Test
+	void arrayIndicesMustBeInRangeAndCanonical() {
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("add", "/skills/3", "value", "Go"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("remove", "/skills/2"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("remove", "/skills/01"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("remove", "/skills/-1"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("remove", "/skills/-"))));
+	}
+
+	@Test
+	void pointerEscapesAreDecoded() {
+		Map<String, Object> result = JsonPatch.apply(document(), List.of(
+				op("replace", "/a~1b", "value", 10),
+				op("replace", "/c~0d", "value", 20)));
+		assertEquals(10, result.get("a/b"));
+		assertEquals(20, result.get("c~d"));
+	}
+
+	@Test
+	void moveAndCopy() {
+		Map<String, Object> result = JsonPatch.apply(document(), List.of(
+				op("copy", "/headline", "from", "/summary"),
+				op("move", "/languages", "from", "/skills")));
+		assertEquals("Engineer", result.get("headline"));
+		assertEquals("Engineer", result.get("summary"));
+		assertEquals(List.of("Java", "SQL"), result.get("languages"));
+		assertEquals(false, result.containsKey("skills"));
+	}
+
+	@Test
+	void cannotMoveIntoItself() {
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("move", "/skills/0", "from", "/skills"))));
+	}
+
+	@Test
+	void testComparesNumbersByValue() {
+		Map<String, Object> input = document();
+		JsonPatch.apply(input, List.of(op("test", "/a~1b", "value", 1.0)));
+		JsonPatch.apply(input, List.of(op("test", "/skills", "value", List.of("Java", "SQL"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(input, List.of(op("test", "/a~1b", "value", 2))));
+	}
+
+	@Test
+	void aFailedOperationDiscardsEarlierOnes() {
+		Map<String, Object> input = document();
+		assertThrows(IllegalArgumentException.class, () -> JsonPatch.apply(input, List.of(
+				op("remove", "/summary"),
+				op("remove", "/missing"))));
+		assertEquals("Engineer", input.get("summary"));
+	}
+
+	@Test
+	void malformedOperationsAreRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("add", "/summary"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("rename", "/summary"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("remove", "summary"))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("remove", ""))));
+		assertThrows(IllegalArgumentException.class,
+				() -> JsonPatch.apply(document(), List.of(op("replace", "", "value", List.of()))));
+	}
+}
@@ -0,0 +1,42 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LatexFormatCacheTest {
+
+	private static final String BODY = "\\begin{document}\nHello\n\\end{document}\n";
+
+	@Test
+	void preambleEndsAfterTheLastPackageLine() {
+		String preamble = "\\documentclass[11pt]{article}\n\\usepackage{geometry}\n\\RequirePackage{xcolor}\n";
+		String source = preamble + "\\newcommand{\\x}{y}\n" + BODY;
+		assertEquals(preamble.length(), LatexFormatCache.preambleEnd(source));
+	}
+
+	@Test
+	void noPreambleWithoutDocumentClassOrBody() {
+		assertEquals(-1, LatexFormatCache.preambleEnd("\\usepackage{geometry}\n" + BODY));
+		assertEquals(-1, LatexFormatCache.preambleEnd("\\documentclass{article}\n"));
+	}
+
+	@Test
+	void sourcesManagingTheirOwnFormatAreLeftAlone() {
+		assertEquals(-1, LatexFormatCache.preambleEnd("%&myformat\n\\documentclass{article}\n" + BODY));
+		assertEquals(-1, LatexFormatCache.preambleEnd("\\documentclass{article}\n\\endofdump\n" + BODY));
+	}
+
+	@Test
+	void optionListsSpanningLinesAreNotCut() {
+		String source = "\\documentclass{article}\n\\usepackage[margin=1in,\ntop=2in]{geometry}\n" + BODY;
+		assertEquals(-1, LatexFormatCache.preambleEnd(source));
+	}
+
+	@Test
+	void endOfDumpIsInsertedAtThePreambleEnd() {
+		String source = "\\documentclass{article}\n" + BODY;
+		int end = LatexFormatCache.preambleEnd(source);
+		assertEquals("\\documentclass{article}\n\\endofdump\n" + BODY, LatexFormatCache.withEndOfDump(source, end));
+	}
+}
@@ -0,0 +1,64 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class LatexTemplateTest {
+
+	private static final String SOURCE = "\\name{{{FULL_NAME}}}\n"
+			+ "{{#EXPERIENCE}}\\job{{{JOB_TITLE}}}{{{LOCATION}}}\n{{/EXPERIENCE}}"
+			+ "{{#SUMMARY}}\\summary{{{SUMMARY}}}{{/SUMMARY}}";
+
+	@Test
+	void escapesValuesAndResolvesNamesInTheInnermostScope() {
+		LatexTemplate template = LatexTemplate.parse("test", SOURCE);
+		Map<String, Object> model = Map.of(
+				"FULL_NAME", "A & B",
+				"LOCATION", "Home",
+				"EXPERIENCE", List.of(
+						Map.of("JOB_TITLE", "C#_dev", "LOCATION", "50% remote"),
+						Map.of("JOB_TITLE", "QA")),
+				"SUMMARY", "  ");
+		assertEquals("\\name{A \\& B}\n"
+				+ "\\job{C\\#\\_dev}{50\\% remote}\n"
+				+ "\\job{QA}{Home}\n", template.render(model));
+	}
+
+	@Test
+	void rejectsBadlyNestedSections() {
+		assertThrows(IllegalArgumentException.class,
+				() -> LatexTemplate.parse("test", "{{#A}}{{#B}}{{/A}}{{/B}}"));
+		assertThrows(IllegalArgumentException.class, () -> LatexTemplate.parse("test", "{{#A}}"));
+		assertThrows(IllegalArgumentException.class, () -> LatexTemplate.parse("test", "{{/A}}"));
+	}
+
+	@Test
+	void fragmentsRenderTheDocumentInOrder() {
+		LatexTemplate template = LatexTemplate.parse("test", SOURCE);
+		Map<String, Object> model = Map.of("FULL_NAME", "Ada", "SUMMARY", "Engineer",
+				"EXPERIENCE", List.of(Map.of("JOB_TITLE", "Dev")));
+		StringBuilder out = new StringBuilder();
+		for (int i = 0; i < template.getFragmentCount(); i++) {
+			template.renderFragment(i, model, out);
+		}
+		assertEquals(template.render(model), out.toString());
+	}
+
+	@Test
+	void fragmentInputsIncludeNestedNames() {
+		LatexTemplate template = LatexTemplate.parse("test", SOURCE);
+		// "\name{", FULL_NAME, "}\n", EXPERIENCE, SUMMARY
+		assertEquals(5, template.getFragmentCount());
+		assertEquals(Set.of(), template.getFragmentInputs(0));
+		assertEquals(Set.of("FULL_NAME"), template.getFragmentInputs(1));
+		assertEquals(Set.of(), template.getFragmentInputs(2));
+		assertEquals(Set.of("EXPERIENCE", "JOB_TITLE", "LOCATION"), template.getFragmentInputs(3));
+		assertEquals(Set.of("SUMMARY"), template.getFragmentInputs(4));
+	}
+}
@@ -0,0 +1,74 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class StreamingResponseParserTest {
+
+	private static final String RESPONSE = "<think>Plan the resume.</think>\n```json\n"
+			+ "{\"summary\": \"Says \\\"hi\\\" {not a brace}\","
+			+ " \"skills\": [{\"title\": \"Java\"}, {\"title\": \"SQL\"}], \"years\": 3}\n```";
+
+	private static final class Recorder implements StreamingResponseParser.Listener {
+		final StringBuilder think = new StringBuilder();
+		final Map<String, Object> sections = new LinkedHashMap<>();
+
+		@Override
+		public void onThink(String delta) {
+			think.append(delta);
+		}
+
+		@Override
+		public void onSection(String name, Object value) {
+			sections.put(name, value);
+		}
+	}
+
+	private static Map<String, Object> parse(Recorder recorder, int chunkSize) {
+		StreamingResponseParser parser = new StreamingResponseParser(recorder);
+		for (int i = 0; i < RESPONSE.length(); i += chunkSize) {
+			parser.accept(RESPONSE.substring(i, Math.min(RESPONSE.length(), i + chunkSize)));
+		}
+		return parser.finish();
+	}
+
+	@Test
+	void sameResultForEveryChunkSize() {
+		for (int chunkSize = 1; chunkSize <= RESPONSE.length(); chunkSize++) {
+			Recorder recorder = new Recorder();
+			Map<String, Object> result = parse(recorder, chunkSize);
+
+			assertEquals("Plan the resume.", result.get("think"), "chunk size " + chunkSize);
+			assertEquals("Plan the resume.", recorder.think.toString(), "chunk size " + chunkSize);
+			Map<?, ?> data = (Map<?, ?>) result.get("data");
+			assertEquals("Says \"hi\" {not a brace}", data.get("summary"), "chunk size " + chunkSize);
+			assertEquals(List.of(Map.of("title", "Java"), Map.of("title", "SQL")), data.get("skills"));
+			assertEquals(3, data.get("years"));
+			assertEquals(List.of("summary", "skills", "years"), new ArrayList<>(recorder.sections.keySet()));
+		}
+	}
+
+	@Test
+	void sectionsAreReportedBeforeTheDocumentEnds() {
+		Recorder recorder = new Recorder();
+		StreamingResponseParser parser = new StreamingResponseParser(recorder);
+		parser.accept("{\"summary\": \"Engineer\", \"skil");
+		assertEquals(Map.of("summary", "Engineer"), recorder.sections);
+	}
+
+	@Test
+	void truncatedJsonIsAnError() {
+		StreamingResponseParser parser = new StreamingResponseParser(null);
+		parser.accept("{\"summary\": \"Engineer\", \"skills\": [");
+		Map<String, Object> result = parser.finish();
+		assertNull(result.get("data"));
+		assertEquals("Failed to parse JSON response", result.get("error"));
+	}
+}
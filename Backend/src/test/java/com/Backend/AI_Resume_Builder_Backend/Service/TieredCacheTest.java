@@ -0,0 +1,48 @@
+package com.Backend.AI_Resume_Builder_Backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TieredCacheTest {
+
+	private static final Duration TTL = Duration.ofSeconds(10);
+	private static final byte[] VALUE = { 1, 2, 3 };
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void entriesSurviveARestartOnDisk() {
+		new TieredCache("test.cache", 1 << 20, TTL, dir, 1 << 20, null).put("key", VALUE);
+
+		TieredCache restarted = new TieredCache("test.cache", 1 << 20, TTL, dir, 1 << 20, null);
+		assertArrayEquals(VALUE, restarted.get("key"));
+		assertEquals(1L, restarted.stats().get("diskHits"));
+		assertArrayEquals(VALUE, restarted.get("key"));
+		assertEquals(1L, restarted.stats().get("memoryHits"));
+	}
+
+	@Test
+	void promotedEntryKeepsItsOriginalWriteTime() throws Exception {
+		new TieredCache("test.cache", 1 << 20, TTL, dir, 1 << 20, null).put("key", VALUE);
+		// Written almost a full TTL ago
+		Files.setLastModifiedTime(dir.resolve("key"),
+				FileTime.fromMillis(System.currentTimeMillis() - TTL.toMillis() + 300));
+
+		TieredCache restarted = new TieredCache("test.cache", 1 << 20, TTL, dir, 1 << 20, null);
+		assertArrayEquals(VALUE, restarted.get("key"));
+
+		Thread.sleep(600);
+		assertNull(restarted.get("key"));
+		assertEquals(1L, restarted.stats().get("misses"));
+	}
+}
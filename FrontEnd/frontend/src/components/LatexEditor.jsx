@@ -4,6 +4,36 @@ import { Dialog, DialogTitle, DialogContent, DialogActions, Button, CircularProg
 // Prefer env-configured API base; fallback to local backend
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8081/api';
 
+// Wait for a compile job to leave 'pending': SSE when available, polling otherwise
+function waitForCompileJob(jobId) {
+  return new Promise((resolve, reject) => {
+    const poll = async () => {
+      try {
+        const resp = await fetch(`${API_BASE_URL}/latex/jobs/${jobId}`, { credentials: 'include' });
+        const status = await resp.json();
+        if (!resp.ok) throw new Error(status?.message || 'Compile job not found');
+        if (status.status === 'pending') setTimeout(poll, 1000);
+        else resolve(status);
+      } catch (e) {
+        reject(e);
+      }
+    };
+    if (typeof EventSource === 'undefined') {
+      poll();
+      return;
+    }
+    const events = new EventSource(`${API_BASE_URL}/latex/jobs/${jobId}/events`, { withCredentials: true });
+    events.addEventListener('done', (e) => {
+      events.close();
+      resolve(JSON.parse(e.data));
+    });
+    events.onerror = () => {
+      events.close();
+      poll();
+    };
+  });
+}
+
 // Lightweight LaTeX editor with optional Monaco loader. Falls back to textarea if Monaco isn't installed.
 export default function LatexEditor({ open, onClose, resumeData, templateType = 'professional' }) {
   const [loading, setLoading] = useState(false);
@@ -21,6 +51,8 @@ export default function LatexEditor({ open, onClose, resumeData, templateType =
   const [compileStatus, setCompileStatus] = useState('');
   const [compileProgress, setCompileProgress] = useState(0);
   const compileTimerRef = useRef(null);
+  // Lets the server drop our queued preview when a newer one arrives
+  const compileClientId = useRef(Math.random().toString(36).slice(2) + Date.now().toString(36));
 
   useEffect(() => {
     if (!open) return;
@@ -155,17 +187,31 @@ export default function LatexEditor({ open, onClose, resumeData, templateType =
     }, 300);
 
     try {
-      const resp = await fetch(`${API_BASE_URL}/latex/compile`, {
+      // Submit returns at once; the compile runs as a job on the server
+      const submit = await fetch(`${API_BASE_URL}/latex/jobs`, {
         method: 'POST',
         headers: { 'Content-Type': 'application/json' },
         credentials: 'include',
-        body: JSON.stringify({ latexCode })
+        body: JSON.stringify({ latexCode, purpose: 'preview', clientId: compileClientId.current })
       });
-      if (!resp.ok) {
+      if (!submit.ok) {
         let msg = 'Server returned error';
-        try { const j = await resp.json(); msg = j?.message || msg; } catch {}
+        try { const j = await submit.json(); msg = j?.message || msg; } catch {}
         throw new Error(msg);
       }
+      const job = await submit.json();
+      const finished = await waitForCompileJob(job.jobId);
+      if (finished.status === 'superseded') {
+        // A newer preview replaced this one and will update the view
+        return;
+      }
+      if (finished.status !== 'succeeded') {
+        throw new Error(finished.message || 'Failed to compile LaTeX');
+      }
+      const resp = await fetch(`${API_BASE_URL}/latex/jobs/${job.jobId}/pdf`, { credentials: 'include' });
+      if (!resp.ok) {
+        throw new Error('Failed to download compiled PDF');
+      }
       const blob = await resp.blob();
       setPdfBlob(blob);
       const url = URL.createObjectURL(blob);
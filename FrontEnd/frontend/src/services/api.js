@@ -11,6 +11,30 @@ const apiClient = axios.create({
   },
 });
 
+// Reads a Server-Sent Events response body, calling onEvent(name, parsedJsonData) per event.
+const readEventStream = async (response, onEvent) => {
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buffer += decoder.decode(value, { stream: true });
+    let boundary;
+    while ((boundary = buffer.indexOf('\n\n')) !== -1) {
+      const rawEvent = buffer.slice(0, boundary);
+      buffer = buffer.slice(boundary + 2);
+      let event = 'message';
+      let data = '';
+      rawEvent.split('\n').forEach((line) => {
+        if (line.startsWith('event:')) event = line.slice(6).trim();
+        else if (line.startsWith('data:')) data += line.slice(5);
+      });
+      onEvent(event, data ? JSON.parse(data) : null);
+    }
+  }
+};
+
 export const resumeAPI = {
   generateResume: async (userResumeDescription, templateType = 'modern') => {
     const response = await apiClient.post('/resume/generate', {
@@ -30,6 +54,35 @@ export const resumeAPI = {
     return data;
   },
 
+  // Streams generation over Server-Sent Events. Callbacks receive reasoning deltas
+  // and each completed top-level section as soon as the backend parses it.
+  generateResumeStream: async (
+    userResumeDescription,
+    templateType = 'modern',
+    { onThink, onSection } = {}
+  ) => {
+    const response = await fetch(`${API_BASE_URL}/resume/generate/stream`, {
+      method: 'POST',
+      credentials: 'include',
+      headers: {
+        'Content-Type': 'application/json',
+        Accept: 'text/event-stream',
+      },
+      body: JSON.stringify({ userResumeDescription, templateType }),
+    });
+    if (!response.ok || !response.body) {
+      throw new Error(`Streaming request failed with status ${response.status}`);
+    }
+
+    let result = null;
+    await readEventStream(response, (event, payload) => {
+      if (event === 'think') onThink?.(payload.delta);
+      else if (event === 'section') onSection?.(payload.name, payload.value);
+      else if (event === 'done' || event === 'error') result = payload;
+    });
+    return result;
+  },
+
   calculateAtsScore: async (file) => {
     const formData = new FormData();
     formData.append('file', file);
@@ -50,6 +103,31 @@ export const resumeAPI = {
     }
     return data;
   },
+
+  // Scores several PDFs in one request. onResult(index, fileName, result) fires per
+  // file as soon as it is scored; resolves with the batch summary.
+  calculateAtsScoreBatch: async (files, { jobDescription, onResult } = {}) => {
+    const formData = new FormData();
+    files.forEach((file) => formData.append('files', file));
+    if (jobDescription) formData.append('jobDescription', jobDescription);
+
+    const response = await fetch(`${API_BASE_URL}/resume/ats-score/batch`, {
+      method: 'POST',
+      credentials: 'include',
+      headers: { Accept: 'text/event-stream' },
+      body: formData,
+    });
+    if (!response.ok || !response.body) {
+      throw new Error(`Batch ATS request failed with status ${response.status}`);
+    }
+
+    let summary = null;
+    await readEventStream(response, (event, payload) => {
+      if (event === 'result') onResult?.(payload.index, payload.fileName, payload.result);
+      else if (event === 'done' || event === 'error') summary = payload;
+    });
+    return summary;
+  },
 };
 
 export default apiClient;